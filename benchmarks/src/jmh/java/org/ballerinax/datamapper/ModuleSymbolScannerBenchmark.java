@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.Package;
+import io.ballerina.projects.PackageCompilation;
+import io.ballerina.projects.directory.BuildProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting the record types of a compiled package from its module level symbols.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModuleSymbolScannerBenchmark {
+
+    @Param({"1", "8"})
+    public int moduleCount;
+
+    @Param({"10", "500"})
+    public int recordTypeCount;
+
+    @Param({"8"})
+    public int fieldCount;
+
+    private Path packageDirectory;
+    private List<SemanticModel> semanticModels;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        packageDirectory = new SyntheticPackage(moduleCount, recordTypeCount, fieldCount, 1, 1).create();
+        Package currentPackage = BuildProject.load(packageDirectory).currentPackage();
+        PackageCompilation compilation = currentPackage.getCompilation();
+        semanticModels = new ArrayList<>();
+        for (ModuleId moduleId : currentPackage.moduleIds()) {
+            semanticModels.add(compilation.getSemanticModel(moduleId));
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int recordTypes = 0;
+        for (SemanticModel semanticModel : semanticModels) {
+            ModuleSymbolScanner scanner = new ModuleSymbolScanner(semanticModel);
+            scanner.scan();
+            recordTypes += scanner.getRecordTypes().size();
+        }
+        return recordTypes;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticPackage.delete(packageDirectory);
+    }
+}
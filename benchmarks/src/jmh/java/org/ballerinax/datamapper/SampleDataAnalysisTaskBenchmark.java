@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.projects.Package;
+import io.ballerina.projects.PackageCompilation;
+import io.ballerina.projects.directory.BuildProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole run of the analysis task on a compiled package, from extracting the record types to validating
+ * every sample data file of the package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SampleDataAnalysisTaskBenchmark {
+    private static final String ANALYSIS_CACHE_PROPERTY = DataMapperConfig.PROPERTY_PREFIX +
+            DataMapperConfig.ANALYSIS_CACHE;
+    private static final String SESSION_STATE_PROPERTY = DataMapperConfig.PROPERTY_PREFIX +
+            DataMapperConfig.SESSION_STATE;
+
+    @Param({"1", "8"})
+    public int moduleCount;
+
+    @Param({"10"})
+    public int recordTypeCount;
+
+    @Param({"8"})
+    public int fieldCount;
+
+    @Param({"1", "3"})
+    public int nestingDepth;
+
+    @Param({"100", "10000"})
+    public int recordCount;
+
+    @Param({"false", "true"})
+    public boolean analysisCache;
+
+    private Path packageDirectory;
+    private TestAnalysisContext analysisContext;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        System.setProperty(ANALYSIS_CACHE_PROPERTY, String.valueOf(analysisCache));
+        // every invocation analyzes the whole package, instead of reusing the session of the previous one
+        System.setProperty(SESSION_STATE_PROPERTY, "false");
+        packageDirectory = new SyntheticPackage(moduleCount, recordTypeCount, fieldCount, nestingDepth, recordCount)
+                .create();
+        Package currentPackage = BuildProject.load(packageDirectory).currentPackage();
+        // compiling the package runs the compiler plugin once, which writes the structure files of the nested types
+        PackageCompilation compilation = currentPackage.getCompilation();
+        analysisContext = new TestAnalysisContext(currentPackage, compilation);
+    }
+
+    @Benchmark
+    public int perform() {
+        analysisContext.resetDiagnosticCount();
+        new SampleDataAnalysisTask().perform(analysisContext);
+        return analysisContext.getDiagnosticCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty(ANALYSIS_CACHE_PROPERTY);
+        System.clearProperty(SESSION_STATE_PROPERTY);
+        SyntheticPackage.delete(packageDirectory);
+    }
+}
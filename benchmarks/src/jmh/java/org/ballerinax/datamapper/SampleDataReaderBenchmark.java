@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and validating a single sample data file, which is the per-record hot path of the analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SampleDataReaderBenchmark {
+    private static final String MODULE_NAME = "m0";
+
+    @Param({"1000", "100000"})
+    public int recordCount;
+
+    @Param({"4", "32"})
+    public int fieldCount;
+
+    private Map<String, RecordSchema> recordSchemas;
+    private Path dataFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticPackage syntheticPackage = new SyntheticPackage(1, 1, fieldCount, 1, recordCount);
+        recordSchemas = RecordSchema.compile(syntheticPackage.getRecordTypes(MODULE_NAME));
+        dataFile = Files.createTempFile("Type0", "_data.json");
+        syntheticPackage.writeSampleData(dataFile, MODULE_NAME, 0);
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        long recordSamples = reader.getSampleData().getRecordCount();
+        reader.getSampleData().close();
+        return recordSamples + reader.getDataMapperLog().getDataMapperPluginDiagnostic().size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dataFile);
+    }
+}
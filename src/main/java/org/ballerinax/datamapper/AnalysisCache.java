@@ -0,0 +1,349 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.Location;
+import io.ballerina.tools.text.LineRange;
+import org.ballerinax.datamapper.diagnostic.DiagnosticErrorCode;
+import org.ballerinax.datamapper.exceptions.DataMapperException;
+import org.ballerinax.datamapper.util.Utils;
+import org.wso2.ballerinalang.compiler.diagnostic.BLangDiagnosticLocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cache of the analysis results of a package, which is kept in the target directory between builds.
+ * <p>
+ * The extracted record types are keyed by a digest of the sources of the package, and the validation results of a
+ * sample data file by the digest of its content together with a digest of the record schemas it was validated
+ * against and the diagnostic limits of the build, since the problems of a file are cut off at the limits. Only the
+ * entries used by a build are written back.
+ */
+class AnalysisCache {
+
+    static final String CACHE_DIRECTORY = "datamapper";
+    static final String CACHE_FILE_NAME = "analysis-cache.json";
+
+    // has to be changed whenever the validation results of an unchanged file may change
+    private static final int CACHE_VERSION = 12;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String VERSION = "version";
+    private static final String SOURCE_DIGEST = "sourceDigest";
+    private static final String RECORD_TYPES = "recordTypes";
+    private static final String DATA_FILES = "dataFiles";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String CONTENT_DIGEST = "contentDigest";
+    private static final String SCHEMA_DIGEST = "schemaDigest";
+    private static final String FILE_DIAGNOSTIC_LIMIT = "fileDiagnosticLimit";
+    private static final String DIAGNOSTIC_LIMIT = "diagnosticLimit";
+    private static final String TYPE_NAMES = "typeNames";
+    private static final String DIAGNOSTICS = "diagnostics";
+    private static final String SAMPLE_TYPE_NAMES = "sampleTypeNames";
+    private static final String CODE = "code";
+    private static final String MESSAGE = "message";
+    private static final String FILE = "file";
+    private static final String START_LINE = "startLine";
+    private static final String START_COLUMN = "startColumn";
+    private static final String END_LINE = "endLine";
+    private static final String END_COLUMN = "endColumn";
+
+    private final Path cacheFile;
+    private final ObjectNode cachedContent;
+    private final ObjectNode updatedContent;
+    private final int fileDiagnosticLimit;
+    private final int diagnosticLimit;
+
+    private AnalysisCache(Path cacheFile, ObjectNode cachedContent, int fileDiagnosticLimit, int diagnosticLimit) {
+        this.cacheFile = cacheFile;
+        this.cachedContent = cachedContent;
+        this.fileDiagnosticLimit = fileDiagnosticLimit;
+        this.diagnosticLimit = diagnosticLimit;
+        this.updatedContent = OBJECT_MAPPER.createObjectNode();
+        this.updatedContent.put(VERSION, CACHE_VERSION);
+        this.updatedContent.putObject(DATA_FILES);
+    }
+
+    /**
+     * Loads the cache kept in the given file. A missing, unreadable or outdated cache is treated as an empty one.
+     *
+     * @param cacheFile           file the cache is kept in
+     * @param fileDiagnosticLimit limit of the problems of a file in the current build
+     * @param diagnosticLimit     limit of the problems of the current build
+     * @return analysis cache
+     */
+    static AnalysisCache load(Path cacheFile, int fileDiagnosticLimit, int diagnosticLimit) {
+        ObjectNode cachedContent = OBJECT_MAPPER.createObjectNode();
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                JsonNode content = OBJECT_MAPPER.readTree(cacheFile.toFile());
+                if (content instanceof ObjectNode && content.path(VERSION).asInt() == CACHE_VERSION) {
+                    cachedContent = (ObjectNode) content;
+                }
+            } catch (IOException e) {
+                // the cache is rebuilt
+            }
+        }
+        return new AnalysisCache(cacheFile, cachedContent, fileDiagnosticLimit, diagnosticLimit);
+    }
+
+    /**
+     * Returns the cached record types of the package.
+     *
+     * @param sourceDigest digest of the sources of the package
+     * @return field names and type signatures keyed by the record type name, or null if the sources have changed
+     */
+    Map<String, Map<String, String>> getRecordTypes(String sourceDigest) {
+        JsonNode recordTypesNode = cachedContent.path(RECORD_TYPES);
+        if (!sourceDigest.equals(cachedContent.path(SOURCE_DIGEST).asText()) || !recordTypesNode.isObject()) {
+            return null;
+        }
+        Map<String, Map<String, String>> recordTypes = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> types = recordTypesNode.fields(); types.hasNext(); ) {
+            Map.Entry<String, JsonNode> type = types.next();
+            Map<String, String> fieldTypes = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = type.getValue().fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                fieldTypes.put(field.getKey(), field.getValue().asText());
+            }
+            recordTypes.put(type.getKey(), fieldTypes);
+        }
+        updatedContent.put(SOURCE_DIGEST, sourceDigest);
+        updatedContent.set(RECORD_TYPES, recordTypesNode);
+        return recordTypes;
+    }
+
+    void putRecordTypes(String sourceDigest, Map<String, Map<String, String>> recordTypes) {
+        updatedContent.put(SOURCE_DIGEST, sourceDigest);
+        ObjectNode recordTypesNode = updatedContent.putObject(RECORD_TYPES);
+        for (Map.Entry<String, Map<String, String>> type : recordTypes.entrySet()) {
+            ObjectNode fieldTypes = recordTypesNode.putObject(type.getKey());
+            for (Map.Entry<String, String> field : type.getValue().entrySet()) {
+                fieldTypes.put(field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the cached validation result of a sample data file.
+     *
+     * @param path          path of the sample data file
+     * @param contentDigest digest of the content of the sample data file
+     * @param recordSchemas record schemas of the current build
+     * @return validation result, or null if the file, the record types it refers to or the diagnostic limits have
+     *         changed
+     */
+    SampleDataResult getResult(String path, String contentDigest, Map<String, RecordSchema> recordSchemas) {
+        JsonNode entry = cachedContent.path(DATA_FILES).path(path);
+        if (!entry.isObject() || !contentDigest.equals(entry.path(CONTENT_DIGEST).asText()) ||
+                entry.path(FILE_DIAGNOSTIC_LIMIT).asInt(-1) != fileDiagnosticLimit ||
+                entry.path(DIAGNOSTIC_LIMIT).asInt(-1) != diagnosticLimit) {
+            return null;
+        }
+        SampleDataResult result = new SampleDataResult();
+        for (JsonNode typeName : entry.path(TYPE_NAMES)) {
+            result.addTypeName(typeName.asText());
+        }
+        if (!getSchemaDigest(result.getTypeNames(), recordSchemas).equals(entry.path(SCHEMA_DIGEST).asText())) {
+            return null;
+        }
+        for (JsonNode diagnostic : entry.path(DIAGNOSTICS)) {
+            DiagnosticErrorCode code = getErrorCode(diagnostic.path(CODE).asText());
+            if (code == null) {
+                return null;
+            }
+            Location position = null;
+            if (diagnostic.has(FILE)) {
+                position = new BLangDiagnosticLocation(diagnostic.path(FILE).asText(),
+                        diagnostic.path(START_LINE).asInt(), diagnostic.path(END_LINE).asInt(),
+                        diagnostic.path(START_COLUMN).asInt(), diagnostic.path(END_COLUMN).asInt());
+            }
+            result.getDataMapperLog().addFormattedDiagnostic(position, code, diagnostic.path(MESSAGE).asText());
+        }
+        for (JsonNode sampleTypeName : entry.path(SAMPLE_TYPE_NAMES)) {
+            result.addSampleTypeName(sampleTypeName.asText());
+        }
+        ((ObjectNode) updatedContent.get(DATA_FILES)).set(path, entry);
+        return result;
+    }
+
+    void putResult(ResourceIndex.Entry file, String contentDigest, SampleDataResult result,
+                   Map<String, RecordSchema> recordSchemas) {
+        ObjectNode entry = ((ObjectNode) updatedContent.get(DATA_FILES)).putObject(file.getPath());
+        entry.put(SIZE, file.getSize());
+        entry.put(LAST_MODIFIED, file.getLastModified());
+        entry.put(CONTENT_DIGEST, contentDigest);
+        entry.put(SCHEMA_DIGEST, getSchemaDigest(result.getTypeNames(), recordSchemas));
+        entry.put(FILE_DIAGNOSTIC_LIMIT, fileDiagnosticLimit);
+        entry.put(DIAGNOSTIC_LIMIT, diagnosticLimit);
+        ArrayNode typeNames = entry.putArray(TYPE_NAMES);
+        result.getTypeNames().forEach(typeNames::add);
+        ArrayNode diagnostics = entry.putArray(DIAGNOSTICS);
+        for (Diagnostic diagnostic : result.getDataMapperLog().getDataMapperPluginDiagnostic()) {
+            ObjectNode diagnosticNode = diagnostics.addObject();
+            diagnosticNode.put(CODE, diagnostic.diagnosticInfo().code());
+            diagnosticNode.put(MESSAGE, diagnostic.message());
+            if (diagnostic.location() != null) {
+                LineRange lineRange = diagnostic.location().lineRange();
+                diagnosticNode.put(FILE, lineRange.fileName());
+                diagnosticNode.put(START_LINE, lineRange.startLine().line());
+                diagnosticNode.put(START_COLUMN, lineRange.startLine().offset());
+                diagnosticNode.put(END_LINE, lineRange.endLine().line());
+                diagnosticNode.put(END_COLUMN, lineRange.endLine().offset());
+            }
+        }
+        ArrayNode sampleTypeNames = entry.putArray(SAMPLE_TYPE_NAMES);
+        result.getSampleTypeNames().forEach(sampleTypeNames::add);
+    }
+
+    /**
+     * Writes the entries used by the current build to the cache file.
+     */
+    void save() throws IOException {
+        Utils.writeToFile(OBJECT_MAPPER.writeValueAsString(updatedContent), cacheFile);
+    }
+
+    /**
+     * Computes a digest of the given record types and all the record types nested in them. Record types which are
+     * not known are part of the digest as well, since they may become known in a later build.
+     */
+    static String getSchemaDigest(Collection<String> typeNames, Map<String, RecordSchema> recordSchemas) {
+        if (typeNames.size() == 1) {
+            RecordSchema schema = recordSchemas.get(typeNames.iterator().next());
+            if (schema != null) {
+                return schema.getSchemaDigest();
+            }
+        }
+        Map<String, RecordSchema> closureSchemas = new TreeMap<>();
+        for (String typeName : typeNames) {
+            RecordSchema schema = recordSchemas.get(typeName);
+            if (schema == null) {
+                closureSchemas.putIfAbsent(typeName, null);
+                continue;
+            }
+            for (RecordSchema nestedSchema : schema.getClosure()) {
+                closureSchemas.put(nestedSchema.getTypeName(), nestedSchema);
+            }
+        }
+        return getSchemaDigest(closureSchemas);
+    }
+
+    /**
+     * Computes a digest of the given record types, which are null if they are not known.
+     *
+     * @param closureSchemas record schemas sorted by the record type name
+     */
+    static String getSchemaDigest(Map<String, RecordSchema> closureSchemas) {
+        MessageDigest digest = newDigest();
+        for (Map.Entry<String, RecordSchema> entry : closureSchemas.entrySet()) {
+            update(digest, entry.getKey());
+            RecordSchema schema = entry.getValue();
+            if (schema == null) {
+                update(digest, "");
+                continue;
+            }
+            for (int i = 0; i < schema.getFieldCount(); i++) {
+                update(digest, schema.getFieldName(i));
+                update(digest, schema.getFieldType(i));
+            }
+        }
+        return toHex(digest);
+    }
+
+    /**
+     * Returns the digest of the content of a sample data file. The cached digest is used if the size and the last
+     * modification time of the file are the ones it was cached with, the same as the resource index does, and the
+     * file is only read to compute the digest otherwise.
+     */
+    String getContentDigest(ResourceIndex.Entry file) throws IOException {
+        JsonNode entry = cachedContent.path(DATA_FILES).path(file.getPath());
+        if (entry.path(SIZE).asLong(-1) == file.getSize() &&
+                entry.path(LAST_MODIFIED).asLong(-1) == file.getLastModified() &&
+                entry.path(CONTENT_DIGEST).isTextual()) {
+            return entry.path(CONTENT_DIGEST).asText();
+        }
+        return getFileDigest(Paths.get(file.getPath()));
+    }
+
+    /**
+     * Computes a digest of the content of the given file.
+     */
+    static String getFileDigest(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+        }
+        return toHex(digest);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new DataMapperException(e);
+        }
+    }
+
+    /**
+     * Adds a value to the digest, terminated so that adjacent values cannot be confused with each other.
+     */
+    static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    static String toHex(MessageDigest digest) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static DiagnosticErrorCode getErrorCode(String diagnosticId) {
+        for (DiagnosticErrorCode code : DiagnosticErrorCode.values()) {
+            if (code.diagnosticId().equals(diagnosticId)) {
+                return code;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.datamapper.util.Utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metrics of a run of the analysis task, which tell how long each phase of the analysis took and how much sample
+ * data every module has. They are written to the target directory of the package, so that a slow build can be
+ * attributed to the compiler plugin or to the compiler itself.
+ */
+class AnalysisMetrics {
+    static final String REPORT_FILE_NAME = "datamapper-metrics.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Phases of the analysis. Record types are extracted while the clients are detected, hence the time of scanning
+     * the module level symbols is attributed to client detection and the time of extracting the fields of the record
+     * types to schema extraction.
+     */
+    enum Phase {
+        CLIENT_DETECTION("clientDetection", "client detection"),
+        SCHEMA_EXTRACTION("schemaExtraction", "schema extraction"),
+        FIXTURE_DISCOVERY("fixtureDiscovery", "fixture discovery"),
+        PARSING_AND_VALIDATION("parsingAndValidation", "parsing and validation"),
+        STRUCTURE_FILE_GENERATION("structureFileGeneration", "structure file generation");
+
+        private final String key;
+        private final String label;
+
+        Phase(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    private final String packageName;
+    private final long startTime;
+    private final long[] phaseTimes;
+    private final Map<String, ModuleMetrics> modules;
+    private long totalTime;
+
+    AnalysisMetrics(String packageName) {
+        this.packageName = packageName;
+        this.startTime = System.nanoTime();
+        this.phaseTimes = new long[Phase.values().length];
+        this.modules = new TreeMap<>();
+    }
+
+    /**
+     * Adds the time elapsed since the given {@link System#nanoTime()} to a phase.
+     */
+    void addTime(Phase phase, long phaseStartTime) {
+        phaseTimes[phase.ordinal()] += System.nanoTime() - phaseStartTime;
+    }
+
+    /**
+     * Returns the time spent in a phase so far, in nanoseconds.
+     */
+    long getTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    ModuleMetrics getModule(String moduleName) {
+        return modules.computeIfAbsent(moduleName, name -> new ModuleMetrics());
+    }
+
+    /**
+     * Stops the clock of the whole run.
+     */
+    void finish() {
+        totalTime = System.nanoTime() - startTime;
+    }
+
+    void write(Path reportFile) throws IOException {
+        ObjectNode report = OBJECT_MAPPER.createObjectNode();
+        report.put("package", packageName);
+        report.put("totalMillis", totalTime / NANOS_PER_MILLI);
+        ObjectNode phases = report.putObject("phaseMillis");
+        for (Phase phase : Phase.values()) {
+            phases.put(phase.key, getTime(phase) / NANOS_PER_MILLI);
+        }
+        ObjectNode moduleNodes = report.putObject("modules");
+        for (Map.Entry<String, ModuleMetrics> module : modules.entrySet()) {
+            ModuleMetrics metrics = module.getValue();
+            ObjectNode moduleNode = moduleNodes.putObject(module.getKey());
+            moduleNode.put("files", metrics.files);
+            moduleNode.put("cachedFiles", metrics.cachedFiles);
+            moduleNode.put("bytes", metrics.bytes);
+            moduleNode.put("records", metrics.records);
+            moduleNode.put("nestedRecords", metrics.nestedRecords);
+            moduleNode.put("diagnostics", metrics.diagnostics);
+        }
+        Utils.writeToFile(OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report), reportFile);
+    }
+
+    /**
+     * Returns a one line summary of the metrics.
+     */
+    String getSummary() {
+        ModuleMetrics total = new ModuleMetrics();
+        for (ModuleMetrics metrics : modules.values()) {
+            total.files += metrics.files;
+            total.bytes += metrics.bytes;
+            total.records += metrics.records;
+            total.nestedRecords += metrics.nestedRecords;
+            total.diagnostics += metrics.diagnostics;
+        }
+        StringBuilder summary = new StringBuilder("data mapper analysis took ")
+                .append(Math.round(totalTime / NANOS_PER_MILLI)).append(" ms (");
+        for (Phase phase : Phase.values()) {
+            summary.append(phase.ordinal() == 0 ? "" : ", ").append(phase.label).append(' ')
+                    .append(Math.round(getTime(phase) / NANOS_PER_MILLI)).append(" ms");
+        }
+        return summary.append(") for ").append(total.files).append(" data files of ").append(total.bytes)
+                .append(" bytes with ").append(total.records).append(" records, ").append(total.nestedRecords)
+                .append(" nested records and ").append(total.diagnostics).append(" diagnostics").toString();
+    }
+
+    /**
+     * Sample data of a module.
+     */
+    static class ModuleMetrics {
+        private int files;
+        private int cachedFiles;
+        private long bytes;
+        private long records;
+        private long nestedRecords;
+        private int diagnostics;
+
+        /**
+         * Adds a validated sample data file. The records of a file restored from the analysis cache are not known,
+         * since the file is not read again.
+         */
+        void addFile(long size, SampleDataResult result, boolean cached) {
+            files++;
+            bytes += size;
+            if (cached) {
+                cachedFiles++;
+            }
+            records += result.getRecordCount();
+            nestedRecords += result.getNestedRecordCount();
+            diagnostics += result.getDataMapperLog().getDataMapperPluginDiagnostic().size();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ModuleId;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of the analysis of a package which is kept between the compilations of the package in the same process, such
+ * as the ones of a language server, so that the compilation after an edit only scans the modules which changed and
+ * only validates the sample data files which changed or whose record types changed.
+ * <p>
+ * A module is unchanged if its documents have the same syntax trees as in the previous compilation. The compiler
+ * keeps the syntax tree of a document until the document is edited, hence the trees are compared by identity. A
+ * sample data file is unchanged if it has the same size and modification time. The sessions of the most recently
+ * compiled packages are kept.
+ */
+class AnalysisSession {
+
+    private static final int MAX_SESSIONS = 8;
+    private static final Map<String, AnalysisSession> SESSIONS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AnalysisSession> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    private final Map<ModuleId, ModuleState> modules;
+    private final Map<String, FileState> files;
+    private Map<String, Map<String, String>> recordTypes;
+    private Map<String, RecordSchema> recordSchemas;
+    private ResourceIndex resourceIndex;
+
+    private AnalysisSession() {
+        this.modules = new HashMap<>();
+        this.files = new HashMap<>();
+    }
+
+    /**
+     * Returns the session of a package, which has to be locked while it is used.
+     *
+     * @param projectDirectory source root of the package
+     * @return session of the package, which is empty if the package was not compiled before
+     */
+    static AnalysisSession get(String projectDirectory) {
+        synchronized (SESSIONS) {
+            return SESSIONS.computeIfAbsent(projectDirectory, directory -> new AnalysisSession());
+        }
+    }
+
+    /**
+     * Whether any module of the package has been scanned in the session.
+     */
+    boolean hasModules() {
+        return !modules.isEmpty();
+    }
+
+    /**
+     * Whether the documents of a module have changed since the module was last scanned.
+     */
+    boolean isChanged(Module module) {
+        ModuleState state = modules.get(module.moduleId());
+        if (state == null || state.syntaxTrees.size() != module.documentIds().size()) {
+            return true;
+        }
+        for (DocumentId documentId : module.documentIds()) {
+            if (state.syntaxTrees.get(documentId) != module.document(documentId).syntaxTree()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the outcome of scanning a module along with the syntax trees it was scanned from.
+     */
+    void putModule(Module module, ModuleSymbolScanner scanner, Map<String, Map<String, String>> moduleRecordTypes) {
+        Map<DocumentId, SyntaxTree> syntaxTrees = new HashMap<>();
+        for (DocumentId documentId : module.documentIds()) {
+            syntaxTrees.put(documentId, module.document(documentId).syntaxTree());
+        }
+        modules.put(module.moduleId(), new ModuleState(syntaxTrees, scanner.isClientFound(), moduleRecordTypes,
+                scanner.getRemoteFunctions()));
+    }
+
+    /**
+     * Drops the modules which are no longer part of the package.
+     */
+    void retainModules(Collection<ModuleId> moduleIds) {
+        modules.keySet().retainAll(moduleIds);
+    }
+
+    /**
+     * Whether any of the modules defines a client class.
+     */
+    boolean isClientFound() {
+        return modules.values().stream().anyMatch(module -> module.clientFound);
+    }
+
+    /**
+     * Returns the record types of all the modules.
+     *
+     * @param moduleIds modules of the package, in the order their record types are merged
+     */
+    Map<String, Map<String, String>> getRecordTypes(Collection<ModuleId> moduleIds) {
+        Map<String, Map<String, String>> packageRecordTypes = new HashMap<>();
+        for (ModuleId moduleId : moduleIds) {
+            packageRecordTypes.putAll(modules.get(moduleId).recordTypes);
+        }
+        return packageRecordTypes;
+    }
+
+    /**
+     * Returns the remote methods of the client classes of all the modules, in module order.
+     */
+    List<FunctionRecord> getRemoteFunctions(Collection<ModuleId> moduleIds) {
+        List<FunctionRecord> remoteFunctions = new ArrayList<>();
+        for (ModuleId moduleId : moduleIds) {
+            remoteFunctions.addAll(modules.get(moduleId).remoteFunctions);
+        }
+        return remoteFunctions;
+    }
+
+    /**
+     * Returns the record schemas of the given record types, which are only compiled again if the record types have
+     * changed since the previous compilation.
+     */
+    Map<String, RecordSchema> getRecordSchemas(Map<String, Map<String, String>> packageRecordTypes) {
+        if (recordSchemas == null || !packageRecordTypes.equals(recordTypes)) {
+            recordTypes = new HashMap<>(packageRecordTypes);
+            recordSchemas = RecordSchema.compile(recordTypes);
+        }
+        return recordSchemas;
+    }
+
+    /**
+     * Returns the result of validating a sample data file in a previous compilation.
+     *
+     * @param path                 path of the sample data file
+     * @param currentRecordSchemas record schemas of the current compilation
+     * @param diagnosticLimit      limit of the problems of the file
+     * @return validation result, or null if the file, the record types it refers to or the limit have changed
+     */
+    SampleDataResult getResult(String path, Map<String, RecordSchema> currentRecordSchemas, int diagnosticLimit) {
+        FileState state = files.get(path);
+        if (state == null || state.diagnosticLimit != diagnosticLimit || !state.isUnchanged(path)) {
+            return null;
+        }
+        String schemaDigest = AnalysisCache.getSchemaDigest(state.result.getTypeNames(), currentRecordSchemas);
+        return schemaDigest.equals(state.schemaDigest) ? state.result : null;
+    }
+
+    /**
+     * Keeps the result of validating a sample data file.
+     */
+    void putResult(String path, SampleDataResult result, Map<String, RecordSchema> currentRecordSchemas,
+                   int diagnosticLimit) {
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            files.remove(path);
+            return;
+        }
+        files.put(path, new FileState(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                AnalysisCache.getSchemaDigest(result.getTypeNames(), currentRecordSchemas), diagnosticLimit, result));
+    }
+
+    /**
+     * Returns the index of the resources directories of the package, which is listed again by every compilation.
+     *
+     * @return resource index, or null if the package was not compiled before
+     */
+    ResourceIndex getResourceIndex() {
+        return resourceIndex;
+    }
+
+    void setResourceIndex(ResourceIndex resourceIndex) {
+        this.resourceIndex = resourceIndex;
+    }
+
+    /**
+     * Drops the sample data files which no longer exist.
+     */
+    void retainFiles(Collection<String> paths) {
+        files.keySet().retainAll(paths);
+    }
+
+    private static BasicFileAttributes readAttributes(String path) {
+        try {
+            return Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static class ModuleState {
+        private final Map<DocumentId, SyntaxTree> syntaxTrees;
+        private final boolean clientFound;
+        private final Map<String, Map<String, String>> recordTypes;
+        private final List<FunctionRecord> remoteFunctions;
+
+        private ModuleState(Map<DocumentId, SyntaxTree> syntaxTrees, boolean clientFound,
+                            Map<String, Map<String, String>> recordTypes, List<FunctionRecord> remoteFunctions) {
+            this.syntaxTrees = syntaxTrees;
+            this.clientFound = clientFound;
+            this.recordTypes = recordTypes;
+            this.remoteFunctions = remoteFunctions;
+        }
+    }
+
+    private static class FileState {
+        private final long size;
+        private final long lastModified;
+        private final String schemaDigest;
+        private final int diagnosticLimit;
+        private final SampleDataResult result;
+
+        private FileState(long size, long lastModified, String schemaDigest, int diagnosticLimit,
+                          SampleDataResult result) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.schemaDigest = schemaDigest;
+            this.diagnosticLimit = diagnosticLimit;
+            this.result = result;
+        }
+
+        private boolean isUnchanged(String path) {
+            BasicFileAttributes attributes = readAttributes(path);
+            return attributes != null && attributes.size() == size &&
+                    attributes.lastModifiedTime().toMillis() == lastModified;
+        }
+    }
+}
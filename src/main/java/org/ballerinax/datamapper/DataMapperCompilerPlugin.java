@@ -30,5 +30,6 @@ public class DataMapperCompilerPlugin extends CompilerPlugin {
     @Override
     public void init(CompilerPluginContext pluginContext) {
         pluginContext.addCodeAnalyzer(new DataMapperCodeAnalyzer());
+        pluginContext.addCodeGenerator(new DataMapperCodeGenerator());
     }
 }
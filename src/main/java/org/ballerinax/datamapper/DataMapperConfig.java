@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.projects.BallerinaToml;
+import io.ballerina.projects.Package;
+import io.ballerina.toml.api.Toml;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Configuration of the data mapper compiler plugin.
+ * <p>
+ * The values are read from the {@code [datamapper]} table of the package's {@code Ballerina.toml}, and each of them
+ * can be overridden for a build with a {@code ballerinax.datamapper.<key>} system property.
+ */
+public class DataMapperConfig {
+    static final String CONFIG_TABLE = "datamapper";
+    static final String PROPERTY_PREFIX = "ballerinax.datamapper.";
+
+    static final String PARALLEL_VALIDATION = "parallelValidation";
+    static final String VALIDATION_THREADS = "validationThreads";
+    static final String CHUNKED_VALIDATION = "chunkedValidation";
+    static final String CHUNK_SIZE = "chunkSize";
+    static final String ANALYSIS_CACHE = "analysisCache";
+    static final String SAMPLE_LIMIT = "sampleLimit";
+    static final String SAMPLING = "sampling";
+    static final String SAMPLING_SEED = "samplingSeed";
+    static final String REFERENCED_TYPES_ONLY = "referencedTypesOnly";
+    static final String METRICS_REPORT = "metricsReport";
+    static final String METRICS_SUMMARY = "metricsSummary";
+    static final String MAPPING_FUNCTIONS = "mappingFunctions";
+    static final String FUNCTION_INDEX = "functionIndex";
+    static final String FILE_DIAGNOSTIC_LIMIT = "fileDiagnosticLimit";
+    static final String DIAGNOSTIC_LIMIT = "diagnosticLimit";
+    static final String SESSION_STATE = "sessionState";
+    static final String STRUCTURE_FILES = "structureFiles";
+
+    static final String RESERVOIR_SAMPLING = "reservoir";
+    static final String REGENERATE_STRUCTURE_FILES = "regenerate";
+    static final String MERGE_STRUCTURE_FILES = "merge";
+
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int DEFAULT_FILE_DIAGNOSTIC_LIMIT = 100;
+    private static final int DEFAULT_DIAGNOSTIC_LIMIT = 1000;
+
+    private final Map<String, Object> values;
+
+    DataMapperConfig(Map<String, Object> values) {
+        this.values = values;
+    }
+
+    public static DataMapperConfig from(Package currentPackage) {
+        Optional<BallerinaToml> ballerinaToml = currentPackage.ballerinaToml();
+        if (ballerinaToml.isEmpty()) {
+            return new DataMapperConfig(Collections.emptyMap());
+        }
+        Optional<Toml> configTable = ballerinaToml.get().tomlDocument().toml().getTable(CONFIG_TABLE);
+        return new DataMapperConfig(configTable.isPresent() ? configTable.get().toMap() : Collections.emptyMap());
+    }
+
+    /**
+     * Whether the sample data files of a module are validated concurrently.
+     */
+    public boolean isParallelValidation() {
+        return getBoolean(PARALLEL_VALIDATION, true);
+    }
+
+    /**
+     * Number of threads used to validate the sample data files of a module concurrently.
+     */
+    public int getValidationThreads() {
+        return Math.max(1, getInt(VALIDATION_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Whether large sample data files are split into chunks of records, which are validated concurrently.
+     */
+    public boolean isChunkedValidation() {
+        return isParallelValidation() && getBoolean(CHUNKED_VALIDATION, true);
+    }
+
+    /**
+     * Minimum number of bytes in a chunk of records. Files smaller than two chunks are not split.
+     */
+    public int getChunkSize() {
+        return Math.max(1, getInt(CHUNK_SIZE, DEFAULT_CHUNK_SIZE));
+    }
+
+    /**
+     * Whether the analysis results are cached in the target directory and reused by the next build.
+     */
+    public boolean isAnalysisCache() {
+        return getBoolean(ANALYSIS_CACHE, true);
+    }
+
+    /**
+     * Maximum number of samples written to the structure file of a nested record type. Zero or less keeps every
+     * sample.
+     */
+    public int getSampleLimit() {
+        return Math.max(0, getInt(SAMPLE_LIMIT, 0));
+    }
+
+    /**
+     * Whether the samples of a record type are selected by reservoir sampling instead of keeping the first ones.
+     */
+    public boolean isReservoirSampling() {
+        return RESERVOIR_SAMPLING.equalsIgnoreCase(getString(SAMPLING, ""));
+    }
+
+    /**
+     * Seed of reservoir sampling, which makes the selected samples reproducible.
+     */
+    public long getSamplingSeed() {
+        return getLong(SAMPLING_SEED, 0);
+    }
+
+    /**
+     * Whether existing structure files are written again from the samples of the current build, instead of being
+     * kept as they are.
+     */
+    public boolean isStructureFileRegeneration() {
+        return isStructureFileMerging() ||
+                REGENERATE_STRUCTURE_FILES.equalsIgnoreCase(getString(STRUCTURE_FILES, ""));
+    }
+
+    /**
+     * Whether the samples of the current build are added to the samples of existing structure files, instead of
+     * replacing them.
+     */
+    public boolean isStructureFileMerging() {
+        return MERGE_STRUCTURE_FILES.equalsIgnoreCase(getString(STRUCTURE_FILES, ""));
+    }
+
+    /**
+     * Whether only the record types declared by the sample data files, and the record types they refer to, are
+     * extracted from the package.
+     */
+    public boolean isReferencedTypesOnly() {
+        return getBoolean(REFERENCED_TYPES_ONLY, false);
+    }
+
+    /**
+     * Whether the time taken by each phase of the analysis and the amount of sample data of every module are written
+     * to the target directory.
+     */
+    public boolean isMetricsReport() {
+        return getBoolean(METRICS_REPORT, false);
+    }
+
+    /**
+     * Whether a one line summary of the analysis metrics is reported as a hint.
+     */
+    public boolean isMetricsSummary() {
+        return getBoolean(METRICS_SUMMARY, false);
+    }
+
+    /**
+     * Whether functions converting the record types used by the remote methods of the client classes from and to
+     * JSON are generated into the modules of the package.
+     */
+    public boolean isMappingFunctions() {
+        return getBoolean(MAPPING_FUNCTIONS, false);
+    }
+
+    /**
+     * Whether an index of the remote methods of the client classes is written to the target directory.
+     */
+    public boolean isFunctionIndex() {
+        return getBoolean(FUNCTION_INDEX, true);
+    }
+
+    /**
+     * Whether the record types and the validation results are kept between the compilations of the package in the
+     * same process, so that a compilation only analyzes what changed since the previous one. It is off by default,
+     * since a one-shot build compiles the package once and the session would only hold memory.
+     */
+    public boolean isSessionState() {
+        return getBoolean(SESSION_STATE, false);
+    }
+
+    /**
+     * Maximum number of problems, counting repeated ones, found in a sample data file, after which the rest of the
+     * file is not validated. Zero or less validates the whole file.
+     */
+    public int getFileDiagnosticLimit() {
+        return Math.max(0, getInt(FILE_DIAGNOSTIC_LIMIT, DEFAULT_FILE_DIAGNOSTIC_LIMIT));
+    }
+
+    /**
+     * Maximum number of diagnostics reported for the sample data files of a build. Zero or less reports every
+     * diagnostic.
+     */
+    public int getDiagnosticLimit() {
+        return Math.max(0, getInt(DIAGNOSTIC_LIMIT, DEFAULT_DIAGNOSTIC_LIMIT));
+    }
+
+    private Object getValue(String key) {
+        String property = System.getProperty(PROPERTY_PREFIX + key);
+        if (property != null) {
+            return property;
+        }
+        return values.get(key);
+    }
+
+    boolean getBoolean(String key, boolean defaultValue) {
+        Object value = getValue(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value == null ? defaultValue : Boolean.parseBoolean(value.toString());
+    }
+
+    String getString(String key, String defaultValue) {
+        Object value = getValue(key);
+        return value == null ? defaultValue : value.toString().trim();
+    }
+
+    long getLong(String key, long defaultValue) {
+        Object value = getValue(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    int getInt(String key, int defaultValue) {
+        Object value = getValue(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.math.BigDecimal;
+
+/**
+ * Kinds of values a record field accepts, along with the mask of the JSON tokens accepted by each kind. Field types
+ * which are not checked, such as unions, maps and {@code json}, accept any value.
+ * <p>
+ * A value has to be of the JSON type of its field. Numbers and booleans given as strings are not accepted, but since
+ * earlier releases accepted them, they are told apart from other strings to be reported as warnings. Record and array
+ * values may be {@code null}.
+ */
+enum FieldKind {
+    STRING(maskOf(JsonToken.VALUE_STRING)),
+    INT(maskOf(JsonToken.VALUE_NUMBER_INT)),
+    NUMBER(maskOf(JsonToken.VALUE_NUMBER_INT) | maskOf(JsonToken.VALUE_NUMBER_FLOAT)),
+    BOOLEAN(maskOf(JsonToken.VALUE_TRUE) | maskOf(JsonToken.VALUE_FALSE)),
+    RECORD(maskOf(JsonToken.START_OBJECT) | maskOf(JsonToken.VALUE_NULL)),
+    ARRAY(maskOf(JsonToken.START_ARRAY) | maskOf(JsonToken.VALUE_NULL)),
+    ANY(-1);
+
+    private final int acceptedTokens;
+
+    FieldKind(int acceptedTokens) {
+        this.acceptedTokens = acceptedTokens;
+    }
+
+    /**
+     * Returns the kind of value of a field type.
+     *
+     * @param fieldType    type signature of the field, without the optional marker
+     * @param nestedSchema schema of the record type referred by the field, if any
+     */
+    static FieldKind of(String fieldType, RecordSchema nestedSchema) {
+        if (fieldType.endsWith("[]")) {
+            return ARRAY;
+        }
+        if (nestedSchema != null) {
+            return RECORD;
+        }
+        switch (fieldType) {
+            case "string":
+                return STRING;
+            case "int":
+            case "byte":
+                return INT;
+            case "float":
+            case "decimal":
+                return NUMBER;
+            case "boolean":
+                return BOOLEAN;
+            default:
+                return fieldType.startsWith("int:") ? INT : ANY;
+        }
+    }
+
+    /**
+     * Whether a value of this kind may start with the given token.
+     */
+    boolean accepts(JsonToken token, boolean optional) {
+        return (acceptedTokens & maskOf(token)) != 0 || (optional && token == JsonToken.VALUE_NULL);
+    }
+
+    /**
+     * Whether a string value holds a value of this kind, such as {@code "5"} for an int field.
+     */
+    boolean acceptsQuoted(String text) {
+        switch (this) {
+            case INT:
+                return text.matches("-?\\d+");
+            case NUMBER:
+                try {
+                    new BigDecimal(text);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            case BOOLEAN:
+                return text.equals("true") || text.equals("false");
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the kind of JSON value which starts with the given token, as reported in diagnostics.
+     */
+    static String describe(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return "object";
+            case START_ARRAY:
+                return "array";
+            case VALUE_STRING:
+                return "string";
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return "number";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "boolean";
+            case VALUE_NULL:
+                return "null";
+            default:
+                return token.name();
+        }
+    }
+
+    private static int maskOf(JsonToken token) {
+        return 1 << token.ordinal();
+    }
+}
@@ -19,19 +19,43 @@
 package org.ballerinax.datamapper;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-class FunctionRecord {
-    private HashMap<String, List<String>> parameters;
-    private List<String> returnTypes;
+/**
+ * Parameters and return types of a remote method of a client class. Union types are expanded to their members, and
+ * each type is given as its signature, which is the fully qualified name for a record type. The error members of the
+ * return type are left out.
+ */
+public class FunctionRecord {
+    private final String clientName;
+    private final String name;
+    private final Map<String, List<String>> parameters;
+    private final List<String> returnTypes;
 
-    public FunctionRecord() {
-        parameters = new HashMap<>();
+    public FunctionRecord(String clientName, String name) {
+        this.clientName = clientName;
+        this.name = name;
+        parameters = new LinkedHashMap<>();
         returnTypes = new ArrayList<>();
     }
 
-    public HashMap<String, List<String>> getParameters() {
+    /**
+     * Returns the fully qualified name of the client class of the method.
+     */
+    public String getClientName() {
+        return clientName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the member types of the parameters, keyed by the parameter names in the order of the parameters.
+     */
+    public Map<String, List<String>> getParameters() {
         return parameters;
     }
 
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
+import io.ballerina.compiler.api.symbols.Qualifier;
+import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Generates Ballerina functions which convert the record types used by the remote methods of the client classes of a
+ * module from and to JSON, so that the callers of a client do not need the generic {@code cloneWithType} and
+ * {@code toJson} conversions for them.
+ * <p>
+ * For every closed record type of the module used by a remote method, and every closed record type of the module
+ * used by the fields of such a record type, {@code fromJson<Type>} and {@code toJson<Type>} functions are generated.
+ * Fields of simple types are converted with {@code ensureType}, fields of the generated record types with the
+ * generated functions, and fields of any other type with the generic conversions. Fields which are not declared by a
+ * record type are ignored by {@code fromJson<Type>}.
+ */
+class MappingFunctionGenerator {
+    static final String FILE_NAME_PREFIX = "datamapper_mappings";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Set<String> RESERVED_WORDS = Set.of("public", "private", "remote", "abstract", "client",
+            "import", "function", "const", "listener", "service", "xmlns", "annotation", "type", "record", "object",
+            "version", "as", "on", "resource", "final", "source", "worker", "parameter", "field", "isolated",
+            "returns", "return", "external", "true", "false", "null", "new", "readonly", "distinct", "transactional",
+            "retry", "if", "else", "while", "check", "checkpanic", "panic", "continue", "break", "typeof", "is",
+            "lock", "fork", "trap", "in", "foreach", "table", "key", "let", "select", "where", "transaction",
+            "commit", "rollback", "fail", "from", "order", "by", "ascending", "descending", "limit", "outer",
+            "equals", "join", "conflict", "var", "int", "byte", "float", "decimal", "string", "boolean", "xml",
+            "json", "handle", "any", "anydata", "never", "stream", "future", "typedesc", "error", "map", "start",
+            "wait", "flush", "default", "enum", "base16", "base64", "class", "do", "match", "group", "collect");
+
+    private final ModuleSymbolScanner scanner;
+    private final Set<String> typeNames;
+    private final Set<String> arrayTypeNames;
+
+    MappingFunctionGenerator(ModuleSymbolScanner scanner) {
+        this.scanner = scanner;
+        this.typeNames = new TreeSet<>();
+        this.arrayTypeNames = new TreeSet<>();
+    }
+
+    /**
+     * Generates the mapping functions of the record types used by the remote methods of the module.
+     *
+     * @return source of the mapping functions, or null if the remote methods do not use such record types
+     */
+    String generate() {
+        Deque<String> pendingTypeNames = new ArrayDeque<>();
+        for (FunctionRecord remoteFunction : scanner.getRemoteFunctions()) {
+            List<String> types = new ArrayList<>(remoteFunction.getReturnTypes());
+            remoteFunction.getParameters().values().forEach(types::addAll);
+            // record types are also mapped for the arrays and optional values of them
+            types.forEach(type -> pendingTypeNames.add(RecordSchema.getRecordTypeName(type)));
+        }
+        while (!pendingTypeNames.isEmpty()) {
+            String typeName = pendingTypeNames.poll();
+            if (typeNames.contains(typeName) || !isMapped(typeName)) {
+                continue;
+            }
+            typeNames.add(typeName);
+            for (RecordFieldSymbol field : scanner.getRecordType(typeName).fieldDescriptors().values()) {
+                FieldMapping mapping = getMapping(field.typeDescriptor());
+                if (mapping.typeName != null) {
+                    pendingTypeNames.add(mapping.typeName);
+                }
+                if (mapping.kind == MappingKind.RECORD_ARRAY) {
+                    arrayTypeNames.add(mapping.typeName);
+                }
+            }
+        }
+        if (typeNames.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder source = new StringBuilder("// Generated by the data mapper compiler plugin.\n");
+        for (String typeName : typeNames) {
+            appendFromJson(source, typeName);
+            appendToJson(source, typeName);
+            if (arrayTypeNames.contains(typeName)) {
+                appendArrayFunctions(source, getRecordName(typeName));
+            }
+        }
+        return source.toString();
+    }
+
+    /**
+     * Whether mapping functions are generated for a record type. Open record types, whose rest fields would be lost,
+     * record types with readonly fields, which cannot be assigned, and record types with fields which cannot be
+     * converted to JSON are left to the generic conversions.
+     */
+    private boolean isMapped(String typeName) {
+        RecordTypeSymbol recordType = typeName == null ? null : scanner.getRecordType(typeName);
+        if (recordType == null || recordType.restTypeDescriptor().isPresent() ||
+                !isIdentifier(getRecordName(typeName))) {
+            return false;
+        }
+        for (RecordFieldSymbol field : recordType.fieldDescriptors().values()) {
+            if (field.qualifiers().contains(Qualifier.READONLY) || !isPlainData(field.typeDescriptor())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a type does not include behavioural values, such as objects, errors and functions. The fields of nested
+     * record types are checked when the mapping functions of those record types are generated.
+     */
+    private static boolean isPlainData(TypeSymbol typeSymbol) {
+        switch (typeSymbol.typeKind()) {
+            case ANY:
+            case ERROR:
+            case OBJECT:
+            case FUNCTION:
+            case STREAM:
+            case FUTURE:
+            case TYPEDESC:
+            case HANDLE:
+                return false;
+            case TYPE_REFERENCE:
+                return isPlainData(((TypeReferenceTypeSymbol) typeSymbol).typeDescriptor());
+            case ARRAY:
+                return isPlainData(((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor());
+            case UNION:
+                for (TypeSymbol memberType : ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors()) {
+                    if (!isPlainData(memberType)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    private FieldMapping getMapping(TypeSymbol typeSymbol) {
+        switch (typeSymbol.typeKind()) {
+            case TYPE_REFERENCE:
+                TypeReferenceTypeSymbol typeReference = (TypeReferenceTypeSymbol) typeSymbol;
+                String typeName = ModuleSymbolScanner.getTypeName(typeReference.definition());
+                if (isMapped(typeName)) {
+                    return new FieldMapping(MappingKind.RECORD, typeName);
+                }
+                return new FieldMapping(isSimple(typeSymbol) ? MappingKind.SIMPLE : MappingKind.OTHER, null);
+            case UNION:
+                if (isSimple(typeSymbol)) {
+                    return new FieldMapping(MappingKind.SIMPLE, null);
+                }
+                List<TypeSymbol> memberTypes = new ArrayList<>(((UnionTypeSymbol) typeSymbol).memberTypeDescriptors());
+                boolean optional = memberTypes.removeIf(memberType -> memberType.typeKind() == TypeDescKind.NIL);
+                if (optional && memberTypes.size() == 1) {
+                    FieldMapping memberMapping = getMapping(memberTypes.get(0));
+                    if (memberMapping.kind == MappingKind.RECORD) {
+                        return new FieldMapping(MappingKind.OPTIONAL_RECORD, memberMapping.typeName);
+                    }
+                }
+                return new FieldMapping(MappingKind.OTHER, null);
+            case ARRAY:
+                FieldMapping memberMapping = getMapping(((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor());
+                if (memberMapping.kind == MappingKind.RECORD) {
+                    return new FieldMapping(MappingKind.RECORD_ARRAY, memberMapping.typeName);
+                }
+                return new FieldMapping(MappingKind.OTHER, null);
+            default:
+                return new FieldMapping(isSimple(typeSymbol) ? MappingKind.SIMPLE : MappingKind.OTHER, null);
+        }
+    }
+
+    /**
+     * Whether the values of a type are JSON values which are converted by a type cast, such as numbers, strings and
+     * unions of them.
+     */
+    private static boolean isSimple(TypeSymbol typeSymbol) {
+        switch (typeSymbol.typeKind()) {
+            case INT:
+            case INT_SIGNED8:
+            case INT_SIGNED16:
+            case INT_SIGNED32:
+            case INT_UNSIGNED8:
+            case INT_UNSIGNED16:
+            case INT_UNSIGNED32:
+            case BYTE:
+            case FLOAT:
+            case DECIMAL:
+            case STRING:
+            case STRING_CHAR:
+            case BOOLEAN:
+            case NIL:
+                return true;
+            case TYPE_REFERENCE:
+                return isSimple(((TypeReferenceTypeSymbol) typeSymbol).typeDescriptor());
+            case UNION:
+                for (TypeSymbol memberType : ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors()) {
+                    if (!isSimple(memberType)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Appends a function converting a JSON value to a record. The fields which are optional or have a default value
+     * are only assigned if the JSON value has them.
+     */
+    private void appendFromJson(StringBuilder source, String typeName) {
+        String recordName = getRecordName(typeName);
+        Map<String, RecordFieldSymbol> fields = scanner.getRecordType(typeName).fieldDescriptors();
+        List<String> assignedFields = new ArrayList<>();
+        source.append("\n# Converts a JSON value to a value of the `").append(recordName).append("` record type.\n")
+                .append("public isolated function fromJson").append(recordName)
+                .append("(json value) returns ").append(recordName).append("|error {\n")
+                .append("    map<json> fields = check value.ensureType();\n")
+                .append("    ").append(recordName).append(" result = {");
+        String separator = "\n";
+        for (Map.Entry<String, RecordFieldSymbol> field : fields.entrySet()) {
+            if (field.getValue().isOptional() || field.getValue().hasDefaultValue()) {
+                assignedFields.add(field.getKey());
+                continue;
+            }
+            source.append(separator).append("        ").append(toIdentifier(field.getKey())).append(": ")
+                    .append(fromJson(getMapping(field.getValue().typeDescriptor()),
+                            "fields[" + toStringLiteral(field.getKey()) + "]"));
+            separator = ",\n";
+        }
+        source.append(separator.equals("\n") ? "};\n" : "\n    };\n");
+        for (String fieldName : assignedFields) {
+            RecordFieldSymbol field = fields.get(fieldName);
+            source.append("    if fields.hasKey(").append(toStringLiteral(fieldName)).append(") {\n")
+                    .append("        result.").append(toIdentifier(fieldName)).append(" = ")
+                    .append(fromJson(getMapping(field.typeDescriptor()), "fields[" + toStringLiteral(fieldName) + "]"))
+                    .append(";\n    }\n");
+        }
+        source.append("    return result;\n}\n");
+    }
+
+    /**
+     * Appends a function converting a record to a JSON value. The optional fields are only added if the record has
+     * them.
+     */
+    private void appendToJson(StringBuilder source, String typeName) {
+        String recordName = getRecordName(typeName);
+        Map<String, RecordFieldSymbol> fields = scanner.getRecordType(typeName).fieldDescriptors();
+        List<String> optionalFields = new ArrayList<>();
+        source.append("\n# Converts a value of the `").append(recordName).append("` record type to a JSON value.\n")
+                .append("public isolated function toJson").append(recordName)
+                .append("(").append(recordName).append(" value) returns map<json> {\n")
+                .append("    map<json> fields = {");
+        String separator = "\n";
+        for (Map.Entry<String, RecordFieldSymbol> field : fields.entrySet()) {
+            if (field.getValue().isOptional()) {
+                optionalFields.add(field.getKey());
+                continue;
+            }
+            source.append(separator).append("        ").append(toStringLiteral(field.getKey())).append(": ")
+                    .append(toJson(getMapping(field.getValue().typeDescriptor()),
+                            "value." + toIdentifier(field.getKey()), false));
+            separator = ",\n";
+        }
+        source.append(separator.equals("\n") ? "};\n" : "\n    };\n");
+        for (String fieldName : optionalFields) {
+            RecordFieldSymbol field = fields.get(fieldName);
+            source.append("    if value.hasKey(").append(toStringLiteral(fieldName)).append(") {\n")
+                    .append("        fields[").append(toStringLiteral(fieldName)).append("] = ")
+                    .append(toJson(getMapping(field.typeDescriptor()), "value?." + toIdentifier(fieldName), true))
+                    .append(";\n    }\n");
+        }
+        source.append("    return fields;\n}\n");
+    }
+
+    /**
+     * Appends the functions converting the arrays of a record type, which are used by the fields holding such arrays.
+     */
+    private static void appendArrayFunctions(StringBuilder source, String recordName) {
+        source.append("\n# Converts a JSON array to an array of the `").append(recordName).append("` record type.\n")
+                .append("public isolated function fromJson").append(recordName)
+                .append("Array(json value) returns ").append(recordName).append("[]|error {\n")
+                .append("    json[] items = check value.ensureType();\n")
+                .append("    ").append(recordName).append("[] result = [];\n")
+                .append("    foreach json item in items {\n")
+                .append("        result.push(check fromJson").append(recordName).append("(item));\n")
+                .append("    }\n")
+                .append("    return result;\n}\n")
+                .append("\n# Converts an array of the `").append(recordName).append("` record type to a JSON array.\n")
+                .append("public isolated function toJson").append(recordName)
+                .append("Array(").append(recordName).append("[] values) returns json[] {\n")
+                .append("    return from ").append(recordName).append(" item in values select toJson")
+                .append(recordName).append("(item);\n}\n");
+    }
+
+    private static String fromJson(FieldMapping mapping, String value) {
+        switch (mapping.kind) {
+            case SIMPLE:
+                return "check " + value + ".ensureType()";
+            case RECORD:
+                return "check fromJson" + getRecordName(mapping.typeName) + "(" + value + ")";
+            case OPTIONAL_RECORD:
+                return value + " is () ? () : check fromJson" + getRecordName(mapping.typeName) + "(" + value + ")";
+            case RECORD_ARRAY:
+                return "check fromJson" + getRecordName(mapping.typeName) + "Array(" + value + ")";
+            default:
+                return "check " + value + ".cloneWithType()";
+        }
+    }
+
+    /**
+     * Returns the expression converting a field value to JSON.
+     *
+     * @param optional whether the field is optional, hence the value may be nil
+     */
+    private static String toJson(FieldMapping mapping, String value, boolean optional) {
+        String recordName = mapping.typeName == null ? null : getRecordName(mapping.typeName);
+        switch (mapping.kind) {
+            case SIMPLE:
+                return value;
+            case RECORD:
+                return optional ? "let " + recordName + "? item = " + value + " in item is () ? () : toJson" +
+                        recordName + "(item)" : "toJson" + recordName + "(" + value + ")";
+            case OPTIONAL_RECORD:
+                return "let " + recordName + "? item = " + value + " in item is () ? () : toJson" + recordName +
+                        "(item)";
+            case RECORD_ARRAY:
+                return optional ? "let " + recordName + "[]? items = " + value + " in items is () ? () : toJson" +
+                        recordName + "Array(items)" : "toJson" + recordName + "Array(" + value + ")";
+            default:
+                return value + ".toJson()";
+        }
+    }
+
+    private static String getRecordName(String typeName) {
+        return typeName.substring(typeName.lastIndexOf(':') + 1);
+    }
+
+    private static boolean isIdentifier(String name) {
+        return IDENTIFIER.matcher(name).matches() && !RESERVED_WORDS.contains(name);
+    }
+
+    /**
+     * Returns the identifier of a field name, which is quoted if the name is a reserved word or has characters which
+     * are not allowed in an unquoted identifier.
+     */
+    private static String toIdentifier(String name) {
+        if (isIdentifier(name)) {
+            return name;
+        }
+        StringBuilder identifier = new StringBuilder("'");
+        for (char c : name.toCharArray()) {
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                identifier.append('\\');
+            }
+            identifier.append(c);
+        }
+        return identifier.toString();
+    }
+
+    private static String toStringLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private enum MappingKind {
+        SIMPLE, RECORD, OPTIONAL_RECORD, RECORD_ARRAY, OTHER
+    }
+
+    /**
+     * How the values of a field are converted, along with the record type whose generated functions are used.
+     */
+    private static final class FieldMapping {
+        private final MappingKind kind;
+        private final String typeName;
+
+        private FieldMapping(MappingKind kind, String typeName) {
+            this.kind = kind;
+            this.typeName = typeName;
+        }
+    }
+}
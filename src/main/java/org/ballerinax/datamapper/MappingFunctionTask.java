@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.Package;
+import io.ballerina.projects.PackageCompilation;
+import io.ballerina.projects.ProjectKind;
+import io.ballerina.projects.plugins.GeneratorTask;
+import io.ballerina.projects.plugins.SourceGeneratorContext;
+import io.ballerina.tools.text.TextDocuments;
+
+/**
+ * A {@code GeneratorTask} that adds the JSON mapping functions of the record types used by the client classes to
+ * every module which defines a client class, when enabled by the {@code mappingFunctions} configuration.
+ */
+public class MappingFunctionTask implements GeneratorTask<SourceGeneratorContext> {
+
+    @Override
+    public void generate(SourceGeneratorContext generatorContext) {
+        Package currentPackage = generatorContext.currentPackage();
+        if (currentPackage.project().kind() != ProjectKind.BUILD_PROJECT ||
+                !DataMapperConfig.from(currentPackage).isMappingFunctions()) {
+            return;
+        }
+        PackageCompilation compilation = generatorContext.compilation();
+        for (ModuleId moduleId : currentPackage.moduleIds()) {
+            ModuleSymbolScanner scanner = new ModuleSymbolScanner(compilation.getSemanticModel(moduleId));
+            scanner.scan();
+            if (!scanner.isClientFound()) {
+                continue;
+            }
+            String source = new MappingFunctionGenerator(scanner).generate();
+            if (source != null) {
+                generatorContext.addSourceFile(TextDocuments.from(source), MappingFunctionGenerator.FILE_NAME_PREFIX,
+                        moduleId);
+            }
+        }
+    }
+}
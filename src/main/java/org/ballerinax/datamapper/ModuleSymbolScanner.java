@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.api.impl.symbols.BallerinaClassSymbol;
+import io.ballerina.compiler.api.symbols.FunctionTypeSymbol;
+import io.ballerina.compiler.api.symbols.MethodSymbol;
+import io.ballerina.compiler.api.symbols.ModuleSymbol;
+import io.ballerina.compiler.api.symbols.ParameterSymbol;
+import io.ballerina.compiler.api.symbols.Qualifier;
+import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
+import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.SymbolKind;
+import io.ballerina.compiler.api.symbols.TypeDefinitionSymbol;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Scans the module level symbols of a module once, finding the record types and the client classes of the module.
+ * The syntax trees of the module are not visited, and the fields of a record type are only extracted on demand.
+ */
+class ModuleSymbolScanner {
+    private final SemanticModel semanticModel;
+    private final Map<String, RecordTypeSymbol> recordTypes;
+    private final List<BallerinaClassSymbol> clientClasses;
+
+    ModuleSymbolScanner(SemanticModel semanticModel) {
+        this.semanticModel = semanticModel;
+        this.recordTypes = new LinkedHashMap<>();
+        this.clientClasses = new ArrayList<>();
+    }
+
+    void scan() {
+        for (Symbol moduleSymbol : semanticModel.moduleSymbols()) {
+            if (moduleSymbol.kind() == SymbolKind.TYPE_DEFINITION) {
+                addRecordType((TypeDefinitionSymbol) moduleSymbol);
+            } else if (moduleSymbol.kind() == SymbolKind.CLASS &&
+                    ((BallerinaClassSymbol) moduleSymbol).qualifiers().contains(Qualifier.CLIENT)) {
+                clientClasses.add((BallerinaClassSymbol) moduleSymbol);
+            }
+        }
+    }
+
+    /**
+     * Returns the fully qualified names of the record types of the module.
+     */
+    Set<String> getRecordTypeNames() {
+        return recordTypes.keySet();
+    }
+
+    /**
+     * Extracts the field types of all the record types of the module.
+     *
+     * @return field types keyed by the fully qualified record type names
+     */
+    Map<String, Map<String, String>> getRecordTypes() {
+        Map<String, Map<String, String>> recordTypeFields = new HashMap<>();
+        for (String typeName : recordTypes.keySet()) {
+            recordTypeFields.put(typeName, getFieldTypes(typeName));
+        }
+        return recordTypeFields;
+    }
+
+    /**
+     * Extracts the field types of a record type of the module.
+     *
+     * @param typeName fully qualified name of the record type
+     * @return type signatures keyed by the field names, in the order of the fields
+     */
+    Map<String, String> getFieldTypes(String typeName) {
+        Map<String, String> fieldTypes = new LinkedHashMap<>();
+        for (Map.Entry<String, RecordFieldSymbol> field : recordTypes.get(typeName).fieldDescriptors().entrySet()) {
+            fieldTypes.put(field.getKey(), field.getValue().typeDescriptor().signature());
+        }
+        return fieldTypes;
+    }
+
+    /**
+     * Whether the module defines a client class.
+     */
+    boolean isClientFound() {
+        return !clientClasses.isEmpty();
+    }
+
+    /**
+     * Returns the symbol of a record type of the module.
+     *
+     * @param typeName fully qualified name of the record type
+     * @return symbol of the record type, or null if the module does not define such a record type
+     */
+    RecordTypeSymbol getRecordType(String typeName) {
+        return recordTypes.get(typeName);
+    }
+
+    /**
+     * Extracts the parameters and the return types of the remote methods of the client classes of the module.
+     *
+     * @return the remote methods of every client class, in the order of the client classes
+     */
+    List<FunctionRecord> getRemoteFunctions() {
+        List<FunctionRecord> remoteFunctions = new ArrayList<>();
+        for (BallerinaClassSymbol clientClass : clientClasses) {
+            String clientName = getTypeName(clientClass);
+            for (MethodSymbol method : clientClass.methods().values()) {
+                if (!method.qualifiers().contains(Qualifier.REMOTE) || method.getName().isEmpty()) {
+                    continue;
+                }
+                FunctionRecord functionRecord = new FunctionRecord(clientName, method.getName().get());
+                FunctionTypeSymbol functionType = method.typeDescriptor();
+                List<ParameterSymbol> parameters = new ArrayList<>(functionType.params().orElse(List.of()));
+                functionType.restParam().ifPresent(parameters::add);
+                for (ParameterSymbol parameter : parameters) {
+                    List<String> parameterTypes = new ArrayList<>();
+                    addMemberTypes(parameter.typeDescriptor(), parameterTypes, false);
+                    functionRecord.addParameter(parameter.getName().orElse(""), parameterTypes);
+                }
+                Optional<TypeSymbol> returnType = functionType.returnTypeDescriptor();
+                if (returnType.isPresent()) {
+                    List<String> returnTypes = new ArrayList<>();
+                    addMemberTypes(returnType.get(), returnTypes, true);
+                    returnTypes.forEach(functionRecord::addReturnType);
+                }
+                remoteFunctions.add(functionRecord);
+            }
+        }
+        return remoteFunctions;
+    }
+
+    /**
+     * Returns the fully qualified name of a type definition, as used for the record types of the module.
+     *
+     * @return fully qualified name, or null if the definition does not have a name or a module
+     */
+    static String getTypeName(Symbol typeDefinition) {
+        Optional<String> name = typeDefinition.getName();
+        Optional<ModuleSymbol> module = typeDefinition.getModule();
+        if (name.isEmpty() || module.isEmpty()) {
+            return null;
+        }
+        return module.get().id().toString() + ":" + name.get();
+    }
+
+    private void addRecordType(TypeDefinitionSymbol typeDefinition) {
+        TypeSymbol typeDescriptor = typeDefinition.typeDescriptor();
+        String typeName = getTypeName(typeDefinition);
+        if (typeDescriptor.typeKind() != TypeDescKind.RECORD || typeName == null) {
+            return;
+        }
+        recordTypes.put(typeName, (RecordTypeSymbol) typeDescriptor);
+    }
+
+    /**
+     * Adds the signatures of the members of a union type, or the signature of any other type.
+     *
+     * @param skipErrors whether error types are left out
+     */
+    private void addMemberTypes(TypeSymbol typeSymbol, List<String> memberTypes, boolean skipErrors) {
+        if (typeSymbol.typeKind() == TypeDescKind.UNION) {
+            for (TypeSymbol memberType : ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors()) {
+                addMemberTypes(memberType, memberTypes, skipErrors);
+            }
+            return;
+        }
+        if (skipErrors && isError(typeSymbol)) {
+            return;
+        }
+        String signature = typeSymbol.signature();
+        if (!memberTypes.contains(signature)) {
+            memberTypes.add(signature);
+        }
+    }
+
+    private static boolean isError(TypeSymbol typeSymbol) {
+        if (typeSymbol.typeKind() == TypeDescKind.TYPE_REFERENCE) {
+            return isError(((TypeReferenceTypeSymbol) typeSymbol).typeDescriptor());
+        }
+        return typeSymbol.typeKind() == TypeDescKind.ERROR;
+    }
+}
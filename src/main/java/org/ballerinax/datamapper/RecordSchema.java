@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compiled, immutable structure of a record type which is used to validate the sample data.
+ * <p>
+ * The fields of a compiled record type point to the schemas of the record types they refer to, and every schema
+ * knows the record types nested in it, so that nested records are validated without looking up or parsing their
+ * types. Recursive and mutually recursive record types are linked into cycles.
+ */
+public final class RecordSchema {
+    private static final String ARRAY_SUFFIX = "[]";
+    private static final String OPTIONAL_SUFFIX = "?";
+
+    private final String typeName;
+    private final String[] fieldNames;
+    private final String[] fieldTypes;
+    private final Map<String, Integer> fieldIndex;
+    private final RecordSchema[] nestedSchemas;
+    private final FieldKind[] fieldKinds;
+    private final FieldKind[] elementKinds;
+    private final boolean[] optionalFields;
+    private final boolean[] optionalElements;
+    private volatile List<RecordSchema> closure;
+    private String schemaDigest;
+
+    private RecordSchema(String typeName, Map<String, String> fieldTypeMap) {
+        int fieldCount = fieldTypeMap.size();
+        this.typeName = typeName.intern();
+        this.fieldNames = new String[fieldCount];
+        this.fieldTypes = new String[fieldCount];
+        this.fieldIndex = new HashMap<>(fieldCount * 2);
+        this.nestedSchemas = new RecordSchema[fieldCount];
+        this.fieldKinds = new FieldKind[fieldCount];
+        this.elementKinds = new FieldKind[fieldCount];
+        this.optionalFields = new boolean[fieldCount];
+        this.optionalElements = new boolean[fieldCount];
+        int index = 0;
+        for (Map.Entry<String, String> field : fieldTypeMap.entrySet()) {
+            String fieldName = field.getKey().intern();
+            this.fieldNames[index] = fieldName;
+            this.fieldTypes[index] = field.getValue();
+            this.fieldIndex.put(fieldName, index);
+            index++;
+        }
+    }
+
+    /**
+     * Compiles the field type information of the record types into linked record schemas.
+     *
+     * @param recordTypes field names and type signatures keyed by the fully qualified record type name
+     * @return compiled record schemas keyed by the fully qualified record type name
+     */
+    public static Map<String, RecordSchema> compile(Map<String, Map<String, String>> recordTypes) {
+        Map<String, RecordSchema> schemas = new HashMap<>(recordTypes.size() * 2);
+        for (Map.Entry<String, Map<String, String>> entry : recordTypes.entrySet()) {
+            schemas.put(entry.getKey(), new RecordSchema(entry.getKey(), entry.getValue()));
+        }
+        for (RecordSchema schema : schemas.values()) {
+            schema.link(schemas);
+        }
+        return Collections.unmodifiableMap(schemas);
+    }
+
+    /**
+     * Links the fields of record types to the schemas of the record types, and precomputes the kinds of values the
+     * fields and the elements of array fields accept.
+     */
+    private void link(Map<String, RecordSchema> schemas) {
+        for (int i = 0; i < fieldTypes.length; i++) {
+            nestedSchemas[i] = schemas.get(getRecordTypeName(fieldTypes[i]));
+            String fieldType = fieldTypes[i];
+            optionalFields[i] = fieldType.endsWith(OPTIONAL_SUFFIX);
+            if (optionalFields[i]) {
+                fieldType = fieldType.substring(0, fieldType.length() - OPTIONAL_SUFFIX.length());
+            }
+            fieldKinds[i] = FieldKind.of(fieldType, nestedSchemas[i]);
+            if (fieldKinds[i] != FieldKind.ARRAY) {
+                elementKinds[i] = FieldKind.ANY;
+                continue;
+            }
+            String elementType = fieldType.substring(0, fieldType.length() - ARRAY_SUFFIX.length());
+            optionalElements[i] = elementType.endsWith(OPTIONAL_SUFFIX);
+            if (optionalElements[i]) {
+                elementType = elementType.substring(0, elementType.length() - OPTIONAL_SUFFIX.length());
+            }
+            // the elements of nested arrays are not checked
+            FieldKind elementKind = FieldKind.of(elementType, nestedSchemas[i]);
+            elementKinds[i] = elementKind == FieldKind.ARRAY ? FieldKind.ANY : elementKind;
+        }
+    }
+
+    /**
+     * Collects the record types nested in this record type, directly or through other nested record types. Every
+     * record type is visited once, hence the cycles of recursive record types end the traversal.
+     */
+    private List<RecordSchema> resolveClosure() {
+        List<RecordSchema> closureSchemas = new ArrayList<>();
+        Set<RecordSchema> visitedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<RecordSchema> pendingSchemas = new ArrayDeque<>();
+        visitedSchemas.add(this);
+        closureSchemas.add(this);
+        pendingSchemas.push(this);
+        while (!pendingSchemas.isEmpty()) {
+            RecordSchema schema = pendingSchemas.pop();
+            for (RecordSchema nestedSchema : schema.nestedSchemas) {
+                if (nestedSchema != null && visitedSchemas.add(nestedSchema)) {
+                    closureSchemas.add(nestedSchema);
+                    pendingSchemas.push(nestedSchema);
+                }
+            }
+        }
+        return Collections.unmodifiableList(closureSchemas);
+    }
+
+    /**
+     * Strips the array and optional type markers of a field type signature.
+     *
+     * @param fieldType type signature of a record field
+     * @return name of the record type referred by the field
+     */
+    static String getRecordTypeName(String fieldType) {
+        String recordTypeName = fieldType;
+        if (recordTypeName.endsWith(OPTIONAL_SUFFIX)) {
+            recordTypeName = recordTypeName.substring(0, recordTypeName.length() - OPTIONAL_SUFFIX.length());
+        }
+        if (recordTypeName.endsWith(ARRAY_SUFFIX)) {
+            recordTypeName = recordTypeName.substring(0, recordTypeName.length() - ARRAY_SUFFIX.length());
+        }
+        return recordTypeName;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    public boolean hasField(String fieldName) {
+        return fieldIndex.containsKey(fieldName);
+    }
+
+    /**
+     * Returns the position of the given field in the record.
+     *
+     * @param fieldName name of the field
+     * @return position of the field, or -1 if the record does not have such a field
+     */
+    public int indexOf(String fieldName) {
+        Integer index = fieldIndex.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the position of the given field in the record, checking the expected position before looking the field
+     * up, since the fields of sample records mostly come in the order of the record type.
+     *
+     * @param fieldName     name of the field
+     * @param expectedIndex position the field is expected at
+     * @return position of the field, or -1 if the record does not have such a field
+     */
+    int indexOf(String fieldName, int expectedIndex) {
+        if (expectedIndex >= 0 && expectedIndex < fieldNames.length && fieldNames[expectedIndex].equals(fieldName)) {
+            return expectedIndex;
+        }
+        return indexOf(fieldName);
+    }
+
+    public String getFieldName(int index) {
+        return fieldNames[index];
+    }
+
+    public String getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    /**
+     * Returns the schema of the record type referred by the given field.
+     *
+     * @param index position of the field
+     * @return schema of the referred record type, or null if the field is not of a record type
+     */
+    public RecordSchema getNestedSchema(int index) {
+        return nestedSchemas[index];
+    }
+
+    /**
+     * Returns this record type followed by every record type nested in it, directly or through other nested record
+     * types, each of them once. The closure is only resolved for the record types it is asked for, once.
+     */
+    public List<RecordSchema> getClosure() {
+        List<RecordSchema> schemas = closure;
+        if (schemas == null) {
+            schemas = resolveClosure();
+            closure = schemas;
+        }
+        return schemas;
+    }
+
+    /**
+     * Returns the digest of this record type and the record types nested in it, which is computed once.
+     *
+     * @see AnalysisCache#getSchemaDigest
+     */
+    String getSchemaDigest() {
+        String digest = schemaDigest;
+        if (digest == null) {
+            Map<String, RecordSchema> closureSchemas = new TreeMap<>();
+            for (RecordSchema schema : getClosure()) {
+                closureSchemas.put(schema.getTypeName(), schema);
+            }
+            digest = AnalysisCache.getSchemaDigest(closureSchemas);
+            schemaDigest = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * Returns the kind of value the given field accepts.
+     */
+    FieldKind getFieldKind(int index) {
+        return fieldKinds[index];
+    }
+
+    /**
+     * Returns the kind of value the elements of the given array field accept.
+     */
+    FieldKind getElementKind(int index) {
+        return elementKinds[index];
+    }
+
+    /**
+     * Whether the given field also accepts {@code null}.
+     */
+    boolean isOptional(int index) {
+        return optionalFields[index];
+    }
+
+    /**
+     * Whether the elements of the given array field also accept {@code null}.
+     */
+    boolean isOptionalElement(int index) {
+        return optionalElements[index];
+    }
+
+    /**
+     * Creates the field values of a sample record of this type. A field holds null until a value of it is read.
+     *
+     * @return field values in the order of the fields
+     */
+    String[] newSampleRecord() {
+        return new String[fieldNames.length];
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import org.ballerinax.datamapper.util.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binary index of the remote methods of the client classes of a package, which is written to the target directory
+ * so that tools can look up the remote methods without compiling the package again.
+ * <p>
+ * The index is read by mapping the file into memory. It starts with a header of six integers: a magic number, the
+ * format version, the number of strings, the number of methods and the number of slots of the two hash tables. The
+ * header is followed by the offsets of the strings, the offsets of the methods, the slots of the table keyed by the
+ * method names, the slots of the table keyed by the types, the lists of methods of the slots, the strings and the
+ * methods. A string is its length followed by its UTF-8 bytes, and a method is the string of its client class and of
+ * its name, its parameters, each a name followed by its types, and its return types, all as indexes of strings. A slot
+ * is the hash of its key, the key, the position and the length of its list of methods, or an empty key of -1. The
+ * tables have more than twice as many slots as keys, hence a lookup only probes a few slots. Methods are looked up
+ * by the record types of their arrays and optional values as well. All integers are big-endian.
+ * <p>
+ * The hash of a key is part of the format: it is the {@link String#hashCode()} of the key, computed over its UTF-16
+ * characters, with its upper 16 bits XORed into its lower 16 bits. Readers of the index in other languages have to
+ * compute it the same way, and changing it requires a new format version.
+ */
+public class RemoteFunctionIndex {
+
+    static final String INDEX_FILE_NAME = "remote-functions.idx";
+
+    private static final int MAGIC = 0x444D5249;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int SLOT_SIZE = 4 * Integer.BYTES;
+    private static final int EMPTY_SLOT = -1;
+
+    private final ByteBuffer content;
+    private final int stringCount;
+    private final int functionCount;
+    private final int nameSlotCount;
+    private final int typeSlotCount;
+    private final int functionOffsets;
+    private final int nameSlots;
+    private final int typeSlots;
+
+    private RemoteFunctionIndex(ByteBuffer content) {
+        this.content = content;
+        this.stringCount = content.getInt(2 * Integer.BYTES);
+        this.functionCount = content.getInt(3 * Integer.BYTES);
+        this.nameSlotCount = content.getInt(4 * Integer.BYTES);
+        this.typeSlotCount = content.getInt(5 * Integer.BYTES);
+        this.functionOffsets = HEADER_SIZE + stringCount * Integer.BYTES;
+        this.nameSlots = functionOffsets + functionCount * Integer.BYTES;
+        this.typeSlots = nameSlots + nameSlotCount * SLOT_SIZE;
+    }
+
+    /**
+     * Maps an index file into memory. The file is not read any further until the methods are looked up.
+     *
+     * @param indexFile file written by {@link #write(Path, List)}
+     * @return index of the remote methods
+     */
+    public static RemoteFunctionIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (content.limit() < HEADER_SIZE || content.getInt(0) != MAGIC ||
+                    content.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("unsupported remote function index: " + indexFile);
+            }
+            return new RemoteFunctionIndex(content);
+        }
+    }
+
+    public int getFunctionCount() {
+        return functionCount;
+    }
+
+    /**
+     * Returns a remote method of the index, in the order they were written.
+     */
+    public FunctionRecord getFunction(int index) {
+        int offset = content.getInt(functionOffsets + index * Integer.BYTES);
+        FunctionRecord function = new FunctionRecord(getString(content.getInt(offset)),
+                getString(content.getInt(offset + Integer.BYTES)));
+        offset += 2 * Integer.BYTES;
+        int parameterCount = content.getInt(offset);
+        offset += Integer.BYTES;
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            String name = getString(content.getInt(offset));
+            List<String> types = new ArrayList<>();
+            offset = readStrings(offset + Integer.BYTES, types);
+            function.addParameter(name, types);
+        }
+        List<String> returnTypes = new ArrayList<>();
+        readStrings(offset, returnTypes);
+        returnTypes.forEach(function::addReturnType);
+        return function;
+    }
+
+    /**
+     * Returns the remote methods of the given name, of every client class.
+     */
+    public List<FunctionRecord> getFunctionsByName(String name) {
+        return lookup(nameSlots, nameSlotCount, name);
+    }
+
+    /**
+     * Returns the remote methods whose parameters or return types use the given type.
+     *
+     * @param typeName signature of the type, which is the fully qualified name for a record type
+     */
+    public List<FunctionRecord> getFunctionsByType(String typeName) {
+        return lookup(typeSlots, typeSlotCount, typeName);
+    }
+
+    private List<FunctionRecord> lookup(int slots, int slotCount, String key) {
+        int hash = hash(key);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        for (int slot = hash & (slotCount - 1); ; slot = (slot + 1) & (slotCount - 1)) {
+            int position = slots + slot * SLOT_SIZE;
+            int keyIndex = content.getInt(position + Integer.BYTES);
+            if (keyIndex == EMPTY_SLOT) {
+                return Collections.emptyList();
+            }
+            if (content.getInt(position) == hash && equalsString(keyIndex, keyBytes)) {
+                int postings = content.getInt(position + 2 * Integer.BYTES);
+                int postingCount = content.getInt(position + 3 * Integer.BYTES);
+                List<FunctionRecord> functions = new ArrayList<>(postingCount);
+                for (int posting = 0; posting < postingCount; posting++) {
+                    functions.add(getFunction(content.getInt(postings + posting * Integer.BYTES)));
+                }
+                return functions;
+            }
+        }
+    }
+
+    private int readStrings(int offset, List<String> strings) {
+        int count = content.getInt(offset);
+        for (int i = 1; i <= count; i++) {
+            strings.add(getString(content.getInt(offset + i * Integer.BYTES)));
+        }
+        return offset + (count + 1) * Integer.BYTES;
+    }
+
+    private String getString(int index) {
+        int offset = content.getInt(HEADER_SIZE + index * Integer.BYTES);
+        byte[] bytes = new byte[content.getInt(offset)];
+        content.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean equalsString(int index, byte[] bytes) {
+        int offset = content.getInt(HEADER_SIZE + index * Integer.BYTES);
+        if (content.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (content.get(offset + Integer.BYTES + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the index of the given remote methods. The index is written to a temporary file which then replaces the
+     * index file, so that a tool never maps a partially written index, and an unchanged index is not written again.
+     *
+     * @param indexFile file the index is written to
+     * @param functions remote methods of the package
+     */
+    static void write(Path indexFile, List<FunctionRecord> functions) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringList = new ArrayList<>();
+        Map<String, List<Integer>> functionsByName = new TreeMap<>();
+        Map<String, List<Integer>> functionsByType = new TreeMap<>();
+        ByteArrayOutputStream functionBytes = new ByteArrayOutputStream();
+        DataOutputStream functionData = new DataOutputStream(functionBytes);
+        int[] functionOffsets = new int[functions.size()];
+        for (int index = 0; index < functions.size(); index++) {
+            FunctionRecord function = functions.get(index);
+            functionOffsets[index] = functionData.size();
+            functionData.writeInt(intern(function.getClientName(), strings, stringList));
+            functionData.writeInt(intern(function.getName(), strings, stringList));
+            addPosting(functionsByName, function.getName(), index);
+            functionData.writeInt(function.getParameters().size());
+            for (Map.Entry<String, List<String>> parameter : function.getParameters().entrySet()) {
+                functionData.writeInt(intern(parameter.getKey(), strings, stringList));
+                writeTypes(functionData, parameter.getValue(), index, strings, stringList, functionsByType);
+            }
+            writeTypes(functionData, function.getReturnTypes(), index, strings, stringList, functionsByType);
+        }
+        for (String key : functionsByName.keySet()) {
+            intern(key, strings, stringList);
+        }
+        for (String key : functionsByType.keySet()) {
+            intern(key, strings, stringList);
+        }
+
+        int nameSlotCount = getSlotCount(functionsByName.size());
+        int typeSlotCount = getSlotCount(functionsByType.size());
+        int postingCount = 0;
+        for (List<Integer> postings : functionsByName.values()) {
+            postingCount += postings.size();
+        }
+        for (List<Integer> postings : functionsByType.values()) {
+            postingCount += postings.size();
+        }
+        int postingsOffset = HEADER_SIZE + (stringList.size() + functions.size()) * Integer.BYTES +
+                (nameSlotCount + typeSlotCount) * SLOT_SIZE;
+        int stringsOffset = postingsOffset + postingCount * Integer.BYTES;
+        List<byte[]> stringBytes = new ArrayList<>(stringList.size());
+        int stringsSize = 0;
+        for (String string : stringList) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            stringBytes.add(bytes);
+            stringsSize += Integer.BYTES + bytes.length;
+        }
+        int functionsOffset = stringsOffset + stringsSize;
+
+        ByteBuffer content = ByteBuffer.allocate(functionsOffset + functionData.size());
+        content.putInt(MAGIC).putInt(VERSION).putInt(stringList.size()).putInt(functions.size())
+                .putInt(nameSlotCount).putInt(typeSlotCount);
+        int stringOffset = stringsOffset;
+        for (byte[] bytes : stringBytes) {
+            content.putInt(stringOffset);
+            stringOffset += Integer.BYTES + bytes.length;
+        }
+        for (int functionOffset : functionOffsets) {
+            content.putInt(functionsOffset + functionOffset);
+        }
+        ByteBuffer postings = content.duplicate().position(postingsOffset);
+        putSlots(content, postings, functionsByName, nameSlotCount, strings);
+        putSlots(content, postings, functionsByType, typeSlotCount, strings);
+        content.position(stringsOffset);
+        for (byte[] bytes : stringBytes) {
+            content.putInt(bytes.length).put(bytes);
+        }
+        content.put(functionBytes.toByteArray());
+        Utils.writeToFile(content.array(), indexFile);
+    }
+
+    private static void writeTypes(DataOutputStream functionData, List<String> types, int index,
+                                   Map<String, Integer> strings, List<String> stringList,
+                                   Map<String, List<Integer>> functionsByType) throws IOException {
+        functionData.writeInt(types.size());
+        for (String type : types) {
+            functionData.writeInt(intern(type, strings, stringList));
+            addPosting(functionsByType, type, index);
+            addPosting(functionsByType, RecordSchema.getRecordTypeName(type), index);
+        }
+    }
+
+    /**
+     * Fills the slots of a hash table, which follow the current position of the content, and appends the lists of
+     * methods of its keys to the postings.
+     */
+    private static void putSlots(ByteBuffer content, ByteBuffer postings, Map<String, List<Integer>> functionsByKey,
+                                 int slotCount, Map<String, Integer> strings) {
+        int[] slotValues = new int[slotCount * 4];
+        Arrays.fill(slotValues, EMPTY_SLOT);
+        for (Map.Entry<String, List<Integer>> key : functionsByKey.entrySet()) {
+            int hash = hash(key.getKey());
+            int slot = hash & (slotCount - 1);
+            while (slotValues[slot * 4 + 1] != EMPTY_SLOT) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slotValues[slot * 4] = hash;
+            slotValues[slot * 4 + 1] = strings.get(key.getKey());
+            slotValues[slot * 4 + 2] = postings.position();
+            slotValues[slot * 4 + 3] = key.getValue().size();
+            key.getValue().forEach(postings::putInt);
+        }
+        for (int value : slotValues) {
+            content.putInt(value);
+        }
+    }
+
+    private static void addPosting(Map<String, List<Integer>> functionsByKey, String key, int index) {
+        List<Integer> postings = functionsByKey.computeIfAbsent(key, k -> new ArrayList<>());
+        // the types of a method are only listed once per method
+        if (postings.isEmpty() || postings.get(postings.size() - 1) != index) {
+            postings.add(index);
+        }
+    }
+
+    private static int intern(String string, Map<String, Integer> strings, List<String> stringList) {
+        return strings.computeIfAbsent(string, s -> {
+            stringList.add(s);
+            return stringList.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the number of slots of a hash table, the smallest power of two which is more than twice the number of
+     * keys, so that a table always has empty slots.
+     */
+    private static int getSlotCount(int keyCount) {
+        return Integer.highestOneBit(keyCount * 2 + 1) << 1;
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.datamapper.util.Utils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the sample data files in the resources directories of a package, which records the size, the modification
+ * time and the declared record type of every file, in any of the sample data formats.
+ * <p>
+ * A directory is only listed again when its modification time changes, which happens whenever an entry is added to,
+ * removed from or renamed in it, and only the sample data files are examined, so that other resources, however large,
+ * cost nothing but the listing of their directory. The record type of a file is only read again when its size or
+ * modification time changes. The index is kept in the target directory between builds.
+ */
+class ResourceIndex {
+
+    static final String INDEX_FILE_NAME = "resource-index.json";
+
+    private static final int INDEX_VERSION = 1;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String VERSION = "version";
+    private static final String DIRECTORIES = "directories";
+    private static final String SUBDIRECTORIES = "subdirectories";
+    private static final String FILES = "files";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String TYPE_NAME = "typeName";
+
+    private final Path indexFile;
+    private final Map<String, DirectoryEntry> cachedDirectories;
+    private final Map<String, DirectoryEntry> listedDirectories;
+    private boolean changed;
+
+    private ResourceIndex(Path indexFile, Map<String, DirectoryEntry> cachedDirectories) {
+        this.indexFile = indexFile;
+        this.cachedDirectories = cachedDirectories;
+        this.listedDirectories = new HashMap<>();
+    }
+
+    /**
+     * Loads the index kept in the given file. A missing, unreadable or outdated index is treated as an empty one.
+     *
+     * @param indexFile file the index is kept in, or null for an index which is not kept between builds
+     * @return resource index
+     */
+    static ResourceIndex load(Path indexFile) {
+        Map<String, DirectoryEntry> directories = new HashMap<>();
+        if (indexFile != null && Files.isRegularFile(indexFile)) {
+            try {
+                JsonNode content = OBJECT_MAPPER.readTree(indexFile.toFile());
+                if (content.path(VERSION).asInt() == INDEX_VERSION) {
+                    readDirectories(content.path(DIRECTORIES), directories);
+                }
+            } catch (IOException e) {
+                // the index is rebuilt
+            }
+        }
+        return new ResourceIndex(indexFile, directories);
+    }
+
+    /**
+     * Lists the sample data files in a resources directory and its subdirectories, updating the index from the
+     * directories and the files which changed.
+     *
+     * @param resourceDirectory resources directory of a module
+     * @return sample data files, in the sorted order of their paths
+     * @throws NoSuchFileException if the directory does not exist
+     */
+    List<Entry> list(Path resourceDirectory) throws IOException {
+        List<Entry> files = new ArrayList<>();
+        refresh(resourceDirectory, Files.readAttributes(resourceDirectory, BasicFileAttributes.class), files);
+        files.sort(Comparator.comparing(Entry::getPath));
+        return files;
+    }
+
+    /**
+     * Ends the current build, writing the directories it listed to the index file unless nothing changed. The
+     * directories which were not listed are dropped.
+     */
+    void save() throws IOException {
+        boolean write = indexFile != null && (changed ||
+                !cachedDirectories.keySet().equals(listedDirectories.keySet()) || !Files.isRegularFile(indexFile));
+        cachedDirectories.clear();
+        cachedDirectories.putAll(listedDirectories);
+        listedDirectories.clear();
+        changed = false;
+        if (!write) {
+            return;
+        }
+        ObjectNode content = OBJECT_MAPPER.createObjectNode();
+        content.put(VERSION, INDEX_VERSION);
+        ObjectNode directoriesNode = content.putObject(DIRECTORIES);
+        for (Map.Entry<String, DirectoryEntry> directory : new TreeMap<>(cachedDirectories).entrySet()) {
+            ObjectNode directoryNode = directoriesNode.putObject(directory.getKey());
+            directoryNode.put(LAST_MODIFIED, directory.getValue().lastModified);
+            directory.getValue().subdirectories.forEach(directoryNode.putArray(SUBDIRECTORIES)::add);
+            ObjectNode filesNode = directoryNode.putObject(FILES);
+            for (Map.Entry<String, Entry> file : directory.getValue().files.entrySet()) {
+                ObjectNode fileNode = filesNode.putObject(file.getKey());
+                fileNode.put(SIZE, file.getValue().size);
+                fileNode.put(LAST_MODIFIED, file.getValue().lastModified);
+                if (file.getValue().typeName != null) {
+                    fileNode.put(TYPE_NAME, file.getValue().typeName);
+                }
+            }
+        }
+        Utils.writeToFile(OBJECT_MAPPER.writeValueAsString(content), indexFile);
+    }
+
+    private void refresh(Path directory, BasicFileAttributes attributes, List<Entry> files) throws IOException {
+        String key = directory.toString();
+        DirectoryEntry cachedDirectory = listedDirectories.containsKey(key) ? listedDirectories.get(key) :
+                cachedDirectories.get(key);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        List<String> subdirectories;
+        List<String> fileNames;
+        if (cachedDirectory != null && cachedDirectory.lastModified == lastModified) {
+            subdirectories = cachedDirectory.subdirectories;
+            fileNames = new ArrayList<>(cachedDirectory.files.keySet());
+        } else {
+            subdirectories = new ArrayList<>();
+            fileNames = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        subdirectories.add(name);
+                    } else if (SampleDataReader.isSampleDataFile(name)) {
+                        fileNames.add(name);
+                    }
+                }
+            }
+            changed = true;
+        }
+
+        DirectoryEntry listedDirectory = new DirectoryEntry(lastModified, subdirectories);
+        for (String fileName : fileNames) {
+            Path file = directory.resolve(fileName);
+            Entry cachedFile = cachedDirectory != null ? cachedDirectory.files.get(fileName) : null;
+            Entry listedFile = refresh(file, cachedFile);
+            if (listedFile != null) {
+                listedDirectory.files.put(fileName, listedFile);
+                files.add(listedFile);
+            }
+        }
+        listedDirectories.put(key, listedDirectory);
+
+        for (String subdirectory : subdirectories) {
+            Path subdirectoryPath = directory.resolve(subdirectory);
+            try {
+                refresh(subdirectoryPath, Files.readAttributes(subdirectoryPath, BasicFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS), files);
+            } catch (NoSuchFileException e) {
+                // removed after its parent was listed
+                changed = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the entry of a sample data file, reading its record type again if the file changed.
+     *
+     * @return entry of the file, or null if it no longer exists
+     */
+    private Entry refresh(Path file, Entry cachedFile) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            changed = true;
+            return null;
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (cachedFile != null && cachedFile.size == size && cachedFile.lastModified == lastModified) {
+            return cachedFile;
+        }
+        changed = true;
+        return new Entry(file.toString(), size, lastModified, SampleDataReader.readTypeName(file));
+    }
+
+    private static void readDirectories(JsonNode directoriesNode, Map<String, DirectoryEntry> directories) {
+        for (Iterator<Map.Entry<String, JsonNode>> nodes = directoriesNode.fields(); nodes.hasNext(); ) {
+            Map.Entry<String, JsonNode> directoryNode = nodes.next();
+            List<String> subdirectories = new ArrayList<>();
+            directoryNode.getValue().path(SUBDIRECTORIES).forEach(name -> subdirectories.add(name.asText()));
+            DirectoryEntry directory = new DirectoryEntry(directoryNode.getValue().path(LAST_MODIFIED).asLong(),
+                    subdirectories);
+            Path directoryPath = Paths.get(directoryNode.getKey());
+            for (Iterator<Map.Entry<String, JsonNode>> files = directoryNode.getValue().path(FILES).fields();
+                 files.hasNext(); ) {
+                Map.Entry<String, JsonNode> fileNode = files.next();
+                JsonNode typeName = fileNode.getValue().path(TYPE_NAME);
+                directory.files.put(fileNode.getKey(), new Entry(directoryPath.resolve(fileNode.getKey()).toString(),
+                        fileNode.getValue().path(SIZE).asLong(), fileNode.getValue().path(LAST_MODIFIED).asLong(),
+                        typeName.isTextual() ? typeName.asText() : null));
+            }
+            directories.put(directoryNode.getKey(), directory);
+        }
+    }
+
+    /**
+     * A sample data file of a resources directory.
+     */
+    static class Entry {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String typeName;
+
+        private Entry(String path, long size, long lastModified, String typeName) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.typeName = typeName;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns the record type declared by the file, which is its first field name.
+         *
+         * @return fully qualified name of the record type, or null if the file does not start with a field name
+         */
+        String getTypeName() {
+            return typeName;
+        }
+    }
+
+    private static class DirectoryEntry {
+        private final long lastModified;
+        private final List<String> subdirectories;
+        private final Map<String, Entry> files;
+
+        private DirectoryEntry(long lastModified, List<String> subdirectories) {
+            this.lastModified = lastModified;
+            this.subdirectories = subdirectories;
+            this.files = new LinkedHashMap<>();
+        }
+    }
+}
@@ -17,21 +17,10 @@
  */
 package org.ballerinax.datamapper;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonLocation;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.ballerina.compiler.api.SemanticModel;
-import io.ballerina.compiler.api.impl.symbols.BallerinaClassSymbol;
-import io.ballerina.compiler.api.symbols.Qualifier;
-import io.ballerina.compiler.api.symbols.Symbol;
-import io.ballerina.compiler.api.symbols.SymbolKind;
-import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.projects.Document;
 import io.ballerina.projects.DocumentId;
 import io.ballerina.projects.Module;
+import io.ballerina.projects.ModuleDependency;
 import io.ballerina.projects.ModuleId;
 import io.ballerina.projects.Package;
 import io.ballerina.projects.PackageCompilation;
@@ -40,34 +29,36 @@ import io.ballerina.projects.plugins.AnalysisTask;
 import io.ballerina.projects.plugins.CompilationAnalysisContext;
 import io.ballerina.tools.diagnostics.Diagnostic;
 import io.ballerina.tools.diagnostics.Location;
+import org.ballerinax.datamapper.AnalysisMetrics.Phase;
 import org.ballerinax.datamapper.diagnostic.DataMapperDiagnosticLog;
 import org.ballerinax.datamapper.diagnostic.DiagnosticErrorCode;
 import org.ballerinax.datamapper.exceptions.DataMapperException;
-import org.ballerinax.datamapper.util.Utils;
 import org.wso2.ballerinalang.compiler.diagnostic.BLangDiagnosticLocation;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * An {@code AnalysisTask} that is triggered for data mapper.
@@ -75,132 +66,512 @@ import java.util.stream.Stream;
 public class SampleDataAnalysisTask implements AnalysisTask<CompilationAnalysisContext> {
 
     private DataMapperDiagnosticLog dataMapperLog;
-    private final HashMap<String, ArrayList<JsonNode>> sampleDataMap;
-    private final HashMap<String, String> typeInformationMap;
-    public StringBuilder functions;
-    private Location nodePosition;
-    private JsonParser parser;
-    private String currentTypeStructure;
+    private final HashMap<String, Map<String, String>> typeInformationMap;
+    private Map<String, RecordSchema> recordSchemas;
+    private DataMapperConfig config;
+    private AnalysisCache analysisCache;
+    private AnalysisMetrics metrics;
+    private Path functionIndexFile;
+    private AnalysisSession session;
+    private ResourceIndex resourceIndex;
+    private final Set<String> sessionFiles;
+    private boolean sessionReused;
+    private int reportedDiagnosticCount;
+    private int omittedDiagnosticCount;
     private String projectDirectory;
     private String packageName;
+    private String packageOrg;
+    private String packageVersion;
 
     public SampleDataAnalysisTask() {
-        this.sampleDataMap = new HashMap<>();
-        this.functions = new StringBuilder();
         this.typeInformationMap = new HashMap<>();
+        this.sessionFiles = new HashSet<>();
+        this.recordSchemas = Collections.emptyMap();
     }
 
     @Override
     public void perform(CompilationAnalysisContext compilationAnalysisContext) {
+        Project project = compilationAnalysisContext.currentPackage().project();
+        this.config = DataMapperConfig.from(project.currentPackage());
+        if (!config.isSessionState()) {
+            this.session = null;
+            analyze(compilationAnalysisContext);
+            return;
+        }
+        AnalysisSession packageSession = AnalysisSession.get(project.sourceRoot().toString());
+        // the compilations of a package share the session and the files of the package
+        synchronized (packageSession) {
+            this.session = packageSession;
+            analyze(compilationAnalysisContext);
+        }
+    }
+
+    private void analyze(CompilationAnalysisContext compilationAnalysisContext) {
         Project project = compilationAnalysisContext.currentPackage().project();
         this.dataMapperLog = new DataMapperDiagnosticLog();
+        // nothing but the session is kept from a previous compilation
+        this.typeInformationMap.clear();
+        this.sessionReused = false;
+        this.reportedDiagnosticCount = 0;
+        this.omittedDiagnosticCount = 0;
         projectDirectory = project.sourceRoot().toString();
         Package currentPackage = project.currentPackage();
+        this.metrics = new AnalysisMetrics(currentPackage.packageName().toString());
+        this.analysisCache = config.isAnalysisCache() ? AnalysisCache.load(project.targetDir()
+                .resolve(AnalysisCache.CACHE_DIRECTORY).resolve(AnalysisCache.CACHE_FILE_NAME),
+                config.getFileDiagnosticLimit(), config.getDiagnosticLimit()) : null;
         Collection<ModuleId> moduleIds = currentPackage.moduleIds();
         PackageCompilation compilation = compilationAnalysisContext.compilation();
-        boolean clientFlag = checkForClient(compilation, moduleIds, currentPackage);
+        boolean singleFileProject = isSingleFileProject(moduleIds, currentPackage);
+        Map<Path, Set<String>> declaredTypeNames = null;
+        this.resourceIndex = session != null ? session.getResourceIndex() : null;
+        if (this.resourceIndex == null) {
+            this.resourceIndex = ResourceIndex.load(!singleFileProject && config.isAnalysisCache() ?
+                    project.targetDir().resolve(AnalysisCache.CACHE_DIRECTORY).resolve(ResourceIndex.INDEX_FILE_NAME) :
+                    null);
+            if (session != null) {
+                session.setResourceIndex(this.resourceIndex);
+            }
+        }
 
-        if (clientFlag) {
+        functionIndexFile = null;
+        if (!singleFileProject) {
             packageName = currentPackage.packageName().toString();
-            for (ModuleId moduleId : moduleIds) {
-                Module module = currentPackage.module(moduleId);
-                SemanticModel semanticModel = compilation.getSemanticModel(moduleId);
-                DataMapperNodeVisitor nodeVisitor = new DataMapperNodeVisitor(semanticModel);
-                for (DocumentId documentId : module.documentIds()) {
-                    SyntaxTree syntaxTree = module.document(documentId).syntaxTree();
-                    syntaxTree.rootNode().accept(nodeVisitor);
-                    if (!nodeVisitor.getRecordTypes().isEmpty()) {
-                        typeInformationMap.putAll(nodeVisitor.getRecordTypes());
-                    }
-                }
+            packageOrg = currentPackage.packageOrg().toString();
+            packageVersion = currentPackage.packageVersion().toString();
+            functionIndexFile = config.isFunctionIndex() ? project.targetDir().resolve(AnalysisCache.CACHE_DIRECTORY)
+                    .resolve(RemoteFunctionIndex.INDEX_FILE_NAME) : null;
+            if (config.isReferencedTypesOnly()) {
+                long discoveryStartTime = System.nanoTime();
+                declaredTypeNames = readDeclaredTypeNames(moduleIds, currentPackage);
+                metrics.addTime(Phase.FIXTURE_DISCOVERY, discoveryStartTime);
             }
         }
-        Set<String> listOfModuleNames = new HashSet<>();
-        for (Map.Entry<String, String> entry : this.typeInformationMap.entrySet()) {
-            String key = entry.getKey();
-            String moduleName;
-            moduleName = key.substring(key.indexOf("/") + 1);
-            moduleName = moduleName.substring(0, moduleName.indexOf(":"));
-            listOfModuleNames.add(moduleName);
+        long extractionStartTime = System.nanoTime();
+        long clientDetectionTime = metrics.getTime(Phase.CLIENT_DETECTION);
+        if (!singleFileProject) {
+            loadRecordTypes(compilation, moduleIds, currentPackage, declaredTypeNames);
+        }
+        this.recordSchemas = session != null ? session.getRecordSchemas(this.typeInformationMap) :
+                RecordSchema.compile(this.typeInformationMap);
+        // the module level symbols scanned while detecting the clients are not counted twice
+        metrics.addTime(Phase.SCHEMA_EXTRACTION,
+                extractionStartTime + metrics.getTime(Phase.CLIENT_DETECTION) - clientDetectionTime);
+        // modules are processed once per resources directory, in a fixed order, and each of them only reads its own
+        // sample data files, while the structure files are written once with the samples found in all of them
+        Set<Path> resourceDirectories = new TreeSet<>();
+        if (declaredTypeNames == null) {
+            for (String typeName : this.recordSchemas.keySet()) {
+                resourceDirectories.add(getResourceDirectory(getModuleName(typeName)));
+            }
+        } else if (!this.recordSchemas.isEmpty()) {
+            // only the directories which have sample data files are known without extracting every record type
+            resourceDirectories.addAll(declaredTypeNames.keySet());
         }
 
-        for (String moduleName : listOfModuleNames) {
-            processSampleDataFiles(moduleName);
+        sessionFiles.clear();
+        try (SampleDataWriter sampleDataWriter = new SampleDataWriter(this::getStructureFilePath,
+                config.getSampleLimit(), config.isReservoirSampling(), config.getSamplingSeed(),
+                config.isStructureFileRegeneration(), config.isStructureFileMerging())) {
+            for (Path resourceDirectory : resourceDirectories) {
+                processSampleDataFiles(resourceDirectory, sampleDataWriter);
+            }
+            long commitStartTime = System.nanoTime();
+            sampleDataWriter.commit();
+            metrics.addTime(Phase.STRUCTURE_FILE_GENERATION, commitStartTime);
+        } catch (IOException e) {
+            throw new DataMapperException(e);
+        }
+        if (session != null) {
+            session.retainFiles(sessionFiles);
+        }
+        try {
+            resourceIndex.save();
+        } catch (IOException e) {
+            // the resources directories are listed again by the next build
+        }
+        // the cache is not updated by a compilation which reused the session, since it does not know every entry
+        if (!singleFileProject && analysisCache != null && !sessionReused) {
+            try {
+                analysisCache.save();
+            } catch (IOException e) {
+                // the analysis results are recomputed by the next build
+            }
+        }
+        if (omittedDiagnosticCount > 0) {
+            dataMapperLog.addDiagnostics(getPackageLocation(singleFileProject),
+                    DiagnosticErrorCode.WARNING_BUILD_DIAGNOSTICS_LIMITED, omittedDiagnosticCount,
+                    config.getDiagnosticLimit());
+        }
+        metrics.finish();
+        if (!singleFileProject && config.isMetricsReport()) {
+            try {
+                metrics.write(project.targetDir().resolve(AnalysisMetrics.REPORT_FILE_NAME));
+            } catch (IOException e) {
+                // the metrics do not affect the build
+            }
+        }
+        if (config.isMetricsSummary()) {
+            dataMapperLog.addDiagnostics(getPackageLocation(singleFileProject),
+                    DiagnosticErrorCode.HINT_ANALYSIS_METRICS, metrics.getSummary());
         }
         for (Diagnostic diagnostic : this.dataMapperLog.getDataMapperPluginDiagnostic()) {
             compilationAnalysisContext.reportDiagnostic(diagnostic);
         }
     }
 
-    private void processSampleDataFiles(String moduleName) {
-        Path issueDataFilePath;
-        if (moduleName.contains(".") && !moduleName.equals(packageName)) {
-            moduleName = moduleName.replace(packageName + ".", "");
-            issueDataFilePath = Paths.get(projectDirectory, "modules", moduleName, "resources");
-        } else {
-            issueDataFilePath = Paths.get(projectDirectory, "resources");
-        }
-        List<String> listOfSampleDataJSONFiles;
+    /**
+     * Returns the location the diagnostics of the whole package are reported at.
+     */
+    private Location getPackageLocation(boolean singleFileProject) {
+        return new BLangDiagnosticLocation(singleFileProject ? projectDirectory :
+                Paths.get(projectDirectory, "Ballerina.toml").toString(), 0, 0, 0, 0);
+    }
 
-        try {
-            Stream<Path> files = Files.walk(issueDataFilePath);
-            listOfSampleDataJSONFiles = files.map(x -> x.toString())
-                    .filter(f -> f.endsWith("_data.json")).collect(Collectors.toList());
+    /**
+     * Adds the diagnostics of a sample data file to the diagnostics of the build, up to the limit of the build.
+     */
+    private void reportDiagnostics(SampleDataResult result) {
+        int diagnosticLimit = config.getDiagnosticLimit();
+        for (Diagnostic diagnostic : result.getDataMapperLog().getDataMapperPluginDiagnostic()) {
+            if (diagnosticLimit > 0 && reportedDiagnosticCount >= diagnosticLimit) {
+                omittedDiagnosticCount++;
+            } else {
+                dataMapperLog.add(diagnostic);
+                reportedDiagnosticCount++;
+            }
+        }
+    }
 
-            Collections.sort(listOfSampleDataJSONFiles);
+    /**
+     * Loads the record types from the analysis cache, unless the sources of the package have changed since they were
+     * cached. The field types of a record may be defined in other documents, hence the record types of all the
+     * modules are extracted again when any of the documents changes, or when the index of the remote methods, which is
+     * written along with them, is missing. No record types are loaded for a package without client classes. A session
+     * which has scanned the modules before only scans the modules which changed, without computing the digest of the
+     * sources.
+     *
+     * @param declaredTypeNames record types declared by the sample data files of every resources directory, or null
+     *                          to load every record type of the package
+     */
+    private void loadRecordTypes(PackageCompilation compilation, Collection<ModuleId> moduleIds,
+                                 Package currentPackage, Map<Path, Set<String>> declaredTypeNames) {
+        Set<String> referencedTypeNames = null;
+        if (declaredTypeNames != null) {
+            referencedTypeNames = new TreeSet<>();
+            declaredTypeNames.values().forEach(referencedTypeNames::addAll);
+        }
+        if (analysisCache == null || (session != null && referencedTypeNames == null && session.hasModules())) {
+            extractRecordTypes(compilation, moduleIds, currentPackage, referencedTypeNames);
+            return;
+        }
+        String sourceDigest = getSourceDigest(moduleIds, currentPackage, referencedTypeNames);
+        Map<String, Map<String, String>> cachedRecordTypes = analysisCache.getRecordTypes(sourceDigest);
+        if (cachedRecordTypes != null && (functionIndexFile == null || Files.isRegularFile(functionIndexFile))) {
+            typeInformationMap.putAll(cachedRecordTypes);
+            return;
+        }
+        extractRecordTypes(compilation, moduleIds, currentPackage, referencedTypeNames);
+        analysisCache.putRecordTypes(sourceDigest, typeInformationMap);
+    }
 
-            for (String path : listOfSampleDataJSONFiles) {
+    /**
+     * Computes a digest of the documents of the package and of the package manifests, which determine the fully
+     * qualified names of the record types, and of the record types the extraction is limited to.
+     */
+    private String getSourceDigest(Collection<ModuleId> moduleIds, Package currentPackage,
+                                   Set<String> referencedTypeNames) {
+        MessageDigest digest = AnalysisCache.newDigest();
+        if (referencedTypeNames != null) {
+            AnalysisCache.update(digest, DataMapperConfig.REFERENCED_TYPES_ONLY);
+            for (String typeName : referencedTypeNames) {
+                AnalysisCache.update(digest, typeName);
+            }
+        }
+        for (String manifest : new String[]{"Ballerina.toml", "Dependencies.toml"}) {
+            Path manifestPath = Paths.get(projectDirectory, manifest);
+            if (Files.isRegularFile(manifestPath)) {
                 try {
-                    readDataArray(path);
+                    AnalysisCache.update(digest, manifest);
+                    digest.update(Files.readAllBytes(manifestPath));
                 } catch (IOException e) {
-                    JsonLocation location = parser.getCurrentLocation();
-                    Location position = new BLangDiagnosticLocation(path,
-                            location.getLineNr() - 1, location.getLineNr() - 1,
-                            location.getColumnNr() - 1, location.getColumnNr() - 1);
-                    dataMapperLog.addDiagnostics(position, DiagnosticErrorCode.ERROR_INVALID_JSON_CONTENT,
-                            getCustomizedErrorMessage(e));
+                    throw new DataMapperException(e);
                 }
             }
+        }
+        Map<String, Module> modules = new TreeMap<>();
+        for (ModuleId moduleId : moduleIds) {
+            Module module = currentPackage.module(moduleId);
+            modules.put(module.moduleName().toString(), module);
+        }
+        for (Map.Entry<String, Module> module : modules.entrySet()) {
+            Map<String, Document> documents = new TreeMap<>();
+            for (DocumentId documentId : module.getValue().documentIds()) {
+                Document document = module.getValue().document(documentId);
+                documents.put(document.name(), document);
+            }
+            for (Map.Entry<String, Document> document : documents.entrySet()) {
+                AnalysisCache.update(digest, module.getKey());
+                AnalysisCache.update(digest, document.getKey());
+                AnalysisCache.update(digest, document.getValue().syntaxTree().toSourceCode());
+            }
+        }
+        return AnalysisCache.toHex(digest);
+    }
 
-            for (Map.Entry<String, ArrayList<JsonNode>> entry : this.sampleDataMap.entrySet()) {
-                String key = entry.getKey();
-
-                if (entry.getValue().size() == 0) {
+    /**
+     * Reads the record types declared by the sample data files of every module, keyed by the resources directory of
+     * the files.
+     */
+    private Map<Path, Set<String>> readDeclaredTypeNames(Collection<ModuleId> moduleIds, Package currentPackage) {
+        Map<Path, Set<String>> declaredTypeNames = new TreeMap<>();
+        for (ModuleId moduleId : moduleIds) {
+            Path resourceDirectory = getResourceDirectory(currentPackage.module(moduleId).moduleName().toString());
+            if (declaredTypeNames.containsKey(resourceDirectory)) {
+                continue;
+            }
+            try {
+                List<ResourceIndex.Entry> sampleDataFiles = resourceIndex.list(resourceDirectory);
+                if (sampleDataFiles.isEmpty()) {
                     continue;
                 }
-                Path targetStructureFilePath = null;
-                StringBuilder sb = new StringBuilder();
-
-                String moduleDirectoryName = key.substring(key.indexOf("/") + 1);
-                moduleDirectoryName = moduleDirectoryName.substring(0, moduleDirectoryName.indexOf(":"));
-                String structureFileName = key.substring(key.lastIndexOf(":") + 1) + "_data.json";
-                if (moduleDirectoryName.contains(".") && !moduleDirectoryName.equals(packageName)) {
-                    moduleDirectoryName = moduleDirectoryName.replace(packageName + ".", "");
-                    targetStructureFilePath = Paths.get(projectDirectory, "modules", moduleDirectoryName,
-                            "resources", structureFileName);
-                } else {
-                    targetStructureFilePath = Paths.get(projectDirectory, "resources", structureFileName);
+                Set<String> typeNames = new TreeSet<>();
+                for (ResourceIndex.Entry sampleDataFile : sampleDataFiles) {
+                    if (sampleDataFile.getTypeName() != null) {
+                        typeNames.add(sampleDataFile.getTypeName());
+                    } else if (SampleDataReader.isJsonLines(sampleDataFile.getPath())) {
+                        // a JSON Lines file without a header line is named after its record type
+                        typeNames.add(getJsonLinesTypeName(Paths.get(sampleDataFile.getPath()), resourceDirectory));
+                    }
                 }
-                File targetFile = new File(String.valueOf(targetStructureFilePath));
+                declaredTypeNames.put(resourceDirectory, typeNames);
+            } catch (NoSuchFileException e) {
+                // modules without resources do not have sample data files
+            } catch (IOException e) {
+                throw new DataMapperException(e);
+            }
+        }
+        return declaredTypeNames;
+    }
 
-                if (targetFile.exists()) {
-                    continue;
+    /**
+     * Scans the module level symbols of all the modules on the analysis thread, since the semantic models of a
+     * compilation are not safe to query concurrently. Every module is scanned once, finding its client classes and its
+     * record types together, and the record types are merged once, in module order, if any of the modules defines a
+     * client class.
+     *
+     * @param referencedTypeNames record types whose fields are extracted along with the record types they refer to,
+     *                            or null to extract every record type
+     */
+    private void extractRecordTypes(PackageCompilation compilation, Collection<ModuleId> moduleIds,
+                                    Package currentPackage, Set<String> referencedTypeNames) {
+        if (session != null && referencedTypeNames == null) {
+            extractChangedRecordTypes(compilation, moduleIds, currentPackage);
+            return;
+        }
+        List<ModuleSymbolScanner> scanners = new ArrayList<>();
+        for (ModuleId moduleId : moduleIds) {
+            scanners.add(new ModuleSymbolScanner(compilation.getSemanticModel(moduleId)));
+        }
+
+        long scanStartTime = System.nanoTime();
+        scanners.forEach(ModuleSymbolScanner::scan);
+        metrics.addTime(Phase.CLIENT_DETECTION, scanStartTime);
+        if (functionIndexFile != null) {
+            List<FunctionRecord> remoteFunctions = new ArrayList<>();
+            for (ModuleSymbolScanner scanner : scanners) {
+                remoteFunctions.addAll(scanner.getRemoteFunctions());
+            }
+            writeFunctionIndex(remoteFunctions);
+        }
+        if (scanners.stream().noneMatch(ModuleSymbolScanner::isClientFound)) {
+            return;
+        }
+        if (referencedTypeNames == null) {
+            for (ModuleSymbolScanner scanner : scanners) {
+                typeInformationMap.putAll(scanner.getRecordTypes());
+            }
+            return;
+        }
+
+        Map<String, ModuleSymbolScanner> recordTypeScanners = new HashMap<>();
+        for (ModuleSymbolScanner scanner : scanners) {
+            for (String typeName : scanner.getRecordTypeNames()) {
+                recordTypeScanners.put(typeName, scanner);
+            }
+        }
+        Deque<String> pendingTypeNames = new ArrayDeque<>(referencedTypeNames);
+        while (!pendingTypeNames.isEmpty()) {
+            String typeName = pendingTypeNames.poll();
+            ModuleSymbolScanner scanner = recordTypeScanners.get(typeName);
+            if (scanner == null || typeInformationMap.containsKey(typeName)) {
+                continue;
+            }
+            Map<String, String> fieldTypes = scanner.getFieldTypes(typeName);
+            typeInformationMap.put(typeName, fieldTypes);
+            for (String fieldType : fieldTypes.values()) {
+                pendingTypeNames.add(RecordSchema.getRecordTypeName(fieldType));
+            }
+        }
+    }
+
+    /**
+     * Scans the modules whose documents changed since the previous compilation of the session, along with the
+     * modules which import them, since a field type may be defined by an imported module. The record types and the
+     * remote methods of the other modules are taken from the session.
+     */
+    private void extractChangedRecordTypes(PackageCompilation compilation, Collection<ModuleId> moduleIds,
+                                           Package currentPackage) {
+        Set<String> changedModuleNames = new HashSet<>();
+        for (ModuleId moduleId : moduleIds) {
+            Module module = currentPackage.module(moduleId);
+            if (session.isChanged(module)) {
+                changedModuleNames.add(module.moduleName().toString());
+            }
+        }
+        boolean dependentFound = !changedModuleNames.isEmpty();
+        while (dependentFound) {
+            dependentFound = false;
+            for (ModuleId moduleId : moduleIds) {
+                Module module = currentPackage.module(moduleId);
+                if (!changedModuleNames.contains(module.moduleName().toString()) &&
+                        importsAny(module, currentPackage, changedModuleNames)) {
+                    changedModuleNames.add(module.moduleName().toString());
+                    dependentFound = true;
                 }
+            }
+        }
+        Map<Module, ModuleSymbolScanner> scanners = new LinkedHashMap<>();
+        for (ModuleId moduleId : moduleIds) {
+            Module module = currentPackage.module(moduleId);
+            if (changedModuleNames.contains(module.moduleName().toString())) {
+                scanners.put(module, new ModuleSymbolScanner(compilation.getSemanticModel(moduleId)));
+            }
+        }
+        sessionReused |= scanners.size() < moduleIds.size();
+
+        long scanStartTime = System.nanoTime();
+        scanners.values().forEach(ModuleSymbolScanner::scan);
+        metrics.addTime(Phase.CLIENT_DETECTION, scanStartTime);
+        for (Map.Entry<Module, ModuleSymbolScanner> scanner : scanners.entrySet()) {
+            session.putModule(scanner.getKey(), scanner.getValue(), scanner.getValue().getRecordTypes());
+        }
+        session.retainModules(moduleIds);
+
+        if (functionIndexFile != null && (!scanners.isEmpty() || !Files.isRegularFile(functionIndexFile))) {
+            writeFunctionIndex(session.getRemoteFunctions(moduleIds));
+        }
+        if (session.isClientFound()) {
+            typeInformationMap.putAll(session.getRecordTypes(moduleIds));
+        }
+    }
+
+    /**
+     * Whether a module imports any of the given modules of its package.
+     */
+    private static boolean importsAny(Module module, Package currentPackage, Set<String> moduleNames) {
+        for (ModuleDependency dependency : module.moduleDependencies()) {
+            if (dependency.descriptor().packageName().equals(currentPackage.packageName()) &&
+                    moduleNames.contains(dependency.descriptor().name().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                sb.append("{\"");
-                sb.append(key);
-                sb.append("\":[");
+    /**
+     * Writes the index of the remote methods of the client classes of all the modules, in module order.
+     */
+    private void writeFunctionIndex(List<FunctionRecord> remoteFunctions) {
+        try {
+            RemoteFunctionIndex.write(functionIndexFile, remoteFunctions);
+        } catch (IOException e) {
+            // tools compile the package when there is no index
+        }
+    }
+
+    /**
+     * Validates the sample data files of a resources directory and writes their samples to the structure files. The
+     * structure files are shared by all the resources directories, since a nested record type may be reached from
+     * several modules, and are only committed once every directory is processed.
+     */
+    private void processSampleDataFiles(Path issueDataFilePath, SampleDataWriter sampleDataWriter) {
+        try {
+            long discoveryStartTime = System.nanoTime();
+            Map<String, ResourceIndex.Entry> sampleDataFiles = new HashMap<>();
+            List<String> listOfSampleDataJSONFiles = new ArrayList<>();
+            for (ResourceIndex.Entry sampleDataFile : resourceIndex.list(issueDataFilePath)) {
+                // only the records of the declared type are validated, hence files of unknown types are not read
+                String typeName = sampleDataFile.getTypeName();
+                if (typeName == null || recordSchemas.containsKey(typeName)) {
+                    sampleDataFiles.put(sampleDataFile.getPath(), sampleDataFile);
+                    listOfSampleDataJSONFiles.add(sampleDataFile.getPath());
+                }
+            }
+            AnalysisMetrics.ModuleMetrics moduleMetrics = metrics.getModule(getModuleName(issueDataFilePath));
 
-                for (Iterator<JsonNode> iterator = entry.getValue().iterator(); iterator.hasNext(); ) {
-                    JsonNode jsonObject = iterator.next();
-                    sb.append(jsonObject.get(key).toString());
-                    if (iterator.hasNext()) {
-                        sb.append(",");
+            Map<String, SampleDataResult> results = new HashMap<>();
+            Map<String, String> contentDigests = new HashMap<>();
+            List<SampleDataReader> readers = new ArrayList<>();
+            Set<String> readPaths = new HashSet<>();
+            for (String path : listOfSampleDataJSONFiles) {
+                if (session != null) {
+                    sessionFiles.add(path);
+                    SampleDataResult sessionResult = session.getResult(path, recordSchemas,
+                            config.getFileDiagnosticLimit());
+                    if (sessionResult != null && !sampleDataWriter.acceptsAny(sessionResult.getSampleTypeNames())) {
+                        results.put(path, sessionResult);
+                        sessionReused = true;
+                        continue;
                     }
                 }
+                if (analysisCache != null) {
+                    String contentDigest = analysisCache.getContentDigest(sampleDataFiles.get(path));
+                    SampleDataResult cachedResult = analysisCache.getResult(path, contentDigest, recordSchemas);
+                    // samples are not cached, hence a file is read again if any of its samples has to be written
+                    if (cachedResult != null && !sampleDataWriter.acceptsAny(cachedResult.getSampleTypeNames())) {
+                        results.put(path, cachedResult);
+                        continue;
+                    }
+                    contentDigests.put(path, contentDigest);
+                }
+                readPaths.add(path);
+                readers.addAll(createReaders(path, issueDataFilePath));
+            }
+            metrics.addTime(Phase.FIXTURE_DISCOVERY, discoveryStartTime);
 
-                sb.append("]}");
-                Utils.writeToFile(sb.toString(), targetStructureFilePath);
+            long readStartTime = System.nanoTime();
+            long generationTime = metrics.getTime(Phase.STRUCTURE_FILE_GENERATION);
+            try {
+                if (config.isParallelValidation() && readers.size() > 1) {
+                    readInParallel(readers, results, sampleDataWriter);
+                } else {
+                    for (SampleDataReader reader : readers) {
+                        reader.read();
+                        mergeResult(reader, results, sampleDataWriter);
+                    }
+                }
+            } finally {
+                for (SampleDataReader reader : readers) {
+                    reader.getSampleData().close();
+                }
+            }
+            // the samples are written while the files are read, which is not counted as reading
+            metrics.addTime(Phase.PARSING_AND_VALIDATION,
+                    readStartTime + metrics.getTime(Phase.STRUCTURE_FILE_GENERATION) - generationTime);
+
+            // results are merged in the sorted order of the files to keep the diagnostics reproducible
+            for (String path : listOfSampleDataJSONFiles) {
+                SampleDataResult result = results.get(path);
+                if (contentDigests.containsKey(path)) {
+                    analysisCache.putResult(sampleDataFiles.get(path), contentDigests.get(path), result,
+                            recordSchemas);
+                }
+                if (session != null && readPaths.contains(path)) {
+                    session.putResult(path, result, recordSchemas, config.getFileDiagnosticLimit());
+                }
+                moduleMetrics.addFile(sampleDataFiles.get(path).getSize(), result, !readPaths.contains(path));
+                reportDiagnostics(result);
             }
         } catch (NoSuchFileException e) {
             // safe to ignore
@@ -209,232 +580,155 @@ public class SampleDataAnalysisTask implements AnalysisTask<CompilationAnalysisC
         }
     }
 
-    private void readDataArray(String path) throws IOException {
-        JsonFactory factory = new JsonFactory();
-        InputStream inputStream = new FileInputStream(path);
-        Reader fileReader = new InputStreamReader(inputStream, "UTF-8");
-        parser = factory.createParser(fileReader);
-
-        String typeName = null;
-        JsonNode typeRecord = null;
-        JsonNode dataRecord = null;
-        int expectedNumberOfAttributes = 0;
-        int previousExpectedNumberOfAttributes = 0;
-        int attributeCounter = 0;
-        long counter = -1;
-        Stack<JsonNode> typeStack = new Stack<>();
-        Stack<Integer> attributeCounterStack = new Stack<>();
-        Stack<JsonLocation> startLocationStack = new Stack<>();
-        String previousTypeName = null;
-        String previousName = null;
-        boolean readyToMoveUpFlag = false;
-        boolean errorFlag = false;
-
-        while (!parser.isClosed() && !errorFlag) {
-            JsonToken jsonToken = parser.nextToken();
-            if (jsonToken == null) {
-                break;
-            }
-            JsonLocation startLocation;
-            JsonLocation endLocation;
-
-            switch (jsonToken) {
-                case START_ARRAY:
-                    break;
-                case END_ARRAY:
-                    break;
-                case START_OBJECT:
-                    if (readyToMoveUpFlag) {
-                        readyToMoveUpFlag = false;
-                        attributeCounter = 0;
-                        dataRecord = constructJSON(currentTypeStructure);
-                    } else {
-                        if (startLocationStack.size() != 0) {
-                            startLocationStack.pop();
-                        }
-                        startLocation = parser.getCurrentLocation();
-                        startLocationStack.push(startLocation);
-                        if (counter == -1) {
-                            counter = 1;
-                        } else {
-                            counter++;
-                        }
-                    }
-
-                    break;
-                case END_OBJECT:
-                    if (readyToMoveUpFlag) {
-                        counter--;
-                    }
+    private static String getModuleName(String typeName) {
+        String moduleName = typeName.substring(typeName.indexOf("/") + 1);
+        return moduleName.substring(0, moduleName.indexOf(":"));
+    }
 
-                    if ((expectedNumberOfAttributes != attributeCounter) && (counter != 1)) {
-                        endLocation = parser.getCurrentLocation();
-                        startLocation = startLocationStack.pop();
-                        Location position = new BLangDiagnosticLocation(path,
-                                startLocation.getLineNr() - 1, endLocation.getLineNr() - 1,
-                                startLocation.getColumnNr() - 1, endLocation.getColumnNr() - 1);
-                        dataMapperLog.addDiagnostics(position, DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_COUNT,
-                                expectedNumberOfAttributes, attributeCounter);
-                    } else {
-                        if (!typeStack.isEmpty()) {
-                            ArrayList<JsonNode> lst = sampleDataMap.getOrDefault(typeName, new ArrayList<JsonNode>());
-                            lst.add(dataRecord);
-                            sampleDataMap.put(typeName, lst);
-                        }
-                    }
+    /**
+     * Returns the name of the module of a resources directory.
+     */
+    private String getModuleName(Path resourceDirectory) {
+        Path moduleDirectory = resourceDirectory.getParent();
+        if (moduleDirectory.equals(Paths.get(projectDirectory))) {
+            return packageName;
+        }
+        return packageName + "." + moduleDirectory.getFileName();
+    }
 
-                    readyToMoveUpFlag = true;
-                    break;
-                case FIELD_NAME:
-                    if (readyToMoveUpFlag) {
-                        readyToMoveUpFlag = false;
-                        dataRecord = null;
-                        if (!typeStack.isEmpty()) {
-                            typeRecord = typeStack.pop();
-                            attributeCounter = attributeCounterStack.pop();
-                            typeName = previousTypeName;
-                            expectedNumberOfAttributes = previousExpectedNumberOfAttributes;
-                            currentTypeStructure = typeRecord.toString();
-                        } else {
-                            counter--;
-                        }
-                    }
+    /**
+     * Returns the resources directory of a module, which holds its sample data files and structure files.
+     */
+    private Path getResourceDirectory(String moduleName) {
+        if (moduleName.contains(".") && !moduleName.equals(packageName)) {
+            moduleName = moduleName.replace(packageName + ".", "");
+            return Paths.get(projectDirectory, "modules", moduleName, "resources");
+        }
+        return Paths.get(projectDirectory, "resources");
+    }
 
-                    final String name = parser.getCurrentName();
-                    if (counter == 1) {
-                        typeName = name;
-                        String value = typeInformationMap.get(name);
-                        if (value == null) {
-                            errorFlag = true;
-                            continue;
-                        }
-
-                        typeRecord = constructJSON(value);
-                        currentTypeStructure = typeRecord.toString();
-                        Iterator<String> iterator = typeRecord.get(name).fieldNames();
-                        expectedNumberOfAttributes = 0;
-                        while (iterator.hasNext()) {
-                            expectedNumberOfAttributes++;
-                            iterator.next();
-                        }
-                    } else if (counter == 2) {
-                        if (typeRecord.get(typeName).get(name) == null) {
-                            JsonLocation location = parser.getCurrentLocation();
-                            Location position = new BLangDiagnosticLocation(path,
-                                    location.getLineNr() - 1, location.getLineNr() - 1,
-                                    location.getColumnNr() - (name.length() + 6),
-                                    location.getColumnNr() - 4);
-                            dataMapperLog.addDiagnostics(position, DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_NAME,
-                                    typeName, name);
-                        }
-                        attributeCounter++;
-                    } else {
-                        JsonNode result = typeRecord.get(typeName).get(previousName);
-                        typeStack.push(typeRecord);
-                        attributeCounterStack.push(attributeCounter);
-                        previousTypeName = typeName;
-                        attributeCounter = 1;
-                        typeName = result.asText();
-                        if (typeName.endsWith("[]")) {
-                            typeName = typeName.substring(0, typeName.length() - 2);
-                        }
-
-                        String value = typeInformationMap.get(typeName);
-                        typeRecord = constructJSON(value);
-                        dataRecord = constructJSON(value);
-                        currentTypeStructure = value;
-                        previousExpectedNumberOfAttributes = expectedNumberOfAttributes;
-
-                        Iterator<String> iterator = typeRecord.get(typeName).fieldNames();
-                        int attributeCount = 0;
-                        while (iterator.hasNext()) {
-                            attributeCount++;
-                            iterator.next();
-                        }
-
-                        expectedNumberOfAttributes = attributeCount;
-
-                        if (!typeRecord.get(typeName).has(name)) {
-                            JsonLocation location = parser.getCurrentLocation();
-                            Location position = new BLangDiagnosticLocation(path,
-                                    location.getLineNr(), location.getLineNr(),
-                                    location.getColumnNr() - (name.length() + 5),
-                                    location.getColumnNr() - 3);
-                            dataMapperLog.addDiagnostics(position, DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_NAME,
-                                    typeName, name);
-                        }
-
-                        counter--;
-                    }
+    /**
+     * Returns the path of the structure file which holds the samples of the given record type.
+     */
+    private Path getStructureFilePath(String typeName) {
+        String structureFileName = typeName.substring(typeName.lastIndexOf(":") + 1) + "_data.json";
+        return getResourceDirectory(getModuleName(typeName)).resolve(structureFileName);
+    }
 
-                    previousName = name;
+    /**
+     * Merges the result of a reader into the result of its file and writes the samples found by the reader. Readers
+     * have to be merged in file order. A chunk which follows a malformed chunk of the same file, or a chunk which
+     * exceeded the limit of problems of the file, is dropped, since a sequential read would have stopped there.
+     */
+    private void mergeResult(SampleDataReader reader, Map<String, SampleDataResult> results,
+                             SampleDataWriter sampleDataWriter) throws IOException {
+        SampleDataResult result = results.computeIfAbsent(reader.getPath(),
+                path -> new SampleDataResult(config.getFileDiagnosticLimit()));
+        if (result.isMalformed() || result.isDiagnosticLimitReached()) {
+            reader.getSampleData().close();
+            return;
+        }
+        result.add(reader);
+        long drainStartTime = System.nanoTime();
+        reader.getSampleData().drainTo(sampleDataWriter);
+        metrics.addTime(Phase.STRUCTURE_FILE_GENERATION, drainStartTime);
+    }
 
-                    break;
-                case VALUE_STRING:
-                    final String s = parser.getValueAsString();
-                    if (dataRecord != null && dataRecord.get(typeName).has(previousName)) {
-                        ((ObjectNode) dataRecord.get(typeName)).put(previousName, s);
-                    }
-                    break;
-                case VALUE_NUMBER_INT:
-                    break;
-                case VALUE_NUMBER_FLOAT:
-                    break;
-                case VALUE_TRUE:
-                    break;
-                case VALUE_FALSE:
-                    break;
-                case VALUE_NULL:
-                    break;
-                default:
-                    dataMapperLog.addDiagnostics(nodePosition, DiagnosticErrorCode.ERROR_INVALID_JSON_TOKEN,
-                            jsonToken);
-                    break;
+    /**
+     * Creates the readers of a sample data file. A large file is split into chunks of records, which are read by
+     * separate readers in file order.
+     */
+    private List<SampleDataReader> createReaders(String path, Path resourceDirectory) throws IOException {
+        Path filePath = Paths.get(path);
+        if (SampleDataReader.isJsonLines(path)) {
+            String typeName = SampleDataReader.readTypeName(filePath);
+            if (typeName == null) {
+                typeName = getJsonLinesTypeName(filePath, resourceDirectory);
+            }
+            List<SampleDataReader> readers = new ArrayList<>();
+            for (SampleDataChunk chunk : SampleDataSplitter.splitLines(filePath, typeName,
+                    config.isChunkedValidation() ? config.getChunkSize() : 0)) {
+                readers.add(new SampleDataReader(path, chunk, recordSchemas, createSampleDataBuffer(),
+                        config.getFileDiagnosticLimit()));
             }
+            return readers;
         }
-
+        // binary and compressed sample data files are not split, since their records cannot be found without parsing
+        // or decompressing them
+        if (config.isChunkedValidation() && !SampleDataReader.isBinary(path) && !SampleDataReader.isGzip(path) &&
+                Files.size(filePath) >= 2L * config.getChunkSize()) {
+            List<SampleDataChunk> chunks = SampleDataSplitter.split(filePath, config.getChunkSize());
+            if (!chunks.isEmpty() && recordSchemas.containsKey(chunks.get(0).getTypeName())) {
+                List<SampleDataReader> readers = new ArrayList<>(chunks.size());
+                for (SampleDataChunk chunk : chunks) {
+                    readers.add(new SampleDataReader(path, chunk, recordSchemas, createSampleDataBuffer(),
+                            config.getFileDiagnosticLimit()));
+                }
+                return readers;
+            }
+        }
+        return Collections.singletonList(new SampleDataReader(path, null, recordSchemas, createSampleDataBuffer(),
+                config.getFileDiagnosticLimit()));
     }
 
-    public JsonNode constructJSON(String jsonData) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode result = objectMapper.readTree(jsonData);
-        return result;
+    /**
+     * Returns the record type of a JSON Lines file without a header line, which is the record type of the module
+     * named by the file, {@code <RECORD_NAME>_data.jsonl}. The name is known without extracting the record types, so
+     * that the file is found to refer to its record type when only the referenced record types are extracted.
+     *
+     * @return fully qualified name of the record type
+     */
+    private String getJsonLinesTypeName(Path filePath, Path resourceDirectory) {
+        String fileName = filePath.getFileName().toString();
+        String recordName = fileName.substring(0, fileName.length() -
+                SampleDataReader.JSON_LINES_FILE_SUFFIX.length());
+        return packageOrg + "/" + getModuleName(resourceDirectory) + ":" + packageVersion + ":" + recordName;
     }
 
-    private String getCustomizedErrorMessage(Exception e) {
-        String errorMessage = null;
-        String originalMessage = e.getMessage();
+    private SampleDataBuffer createSampleDataBuffer() {
+        // any sample may be selected by reservoir sampling, hence only the first samples allow dropping the rest early
+        return new SampleDataBuffer(config.isReservoirSampling() ? 0 : config.getSampleLimit());
+    }
 
-        if (originalMessage.contains("Source: java.io.InputStreamReader@")) {
-            String[] arr = originalMessage.split("Source: java.io.InputStreamReader@");
-            int index = arr[1].indexOf(";");
-            String endString = arr[1].substring(index);
-            errorMessage = arr[0] + "Source: java.io.InputStreamReader@OBJECTREF" + endString;
-        } else if (originalMessage.contains("(InputStreamReader)")) {
-            errorMessage = originalMessage;
+    /**
+     * Reads the given sample data files or chunks concurrently. The largest ones are scheduled first, so that a
+     * large file does not start last and delay the whole module.
+     */
+    private void readInParallel(List<SampleDataReader> readers, Map<String, SampleDataResult> results,
+                                SampleDataWriter sampleDataWriter) throws IOException {
+        List<SampleDataReader> schedule = new ArrayList<>(readers);
+        Map<SampleDataReader, Long> fileSizes = new HashMap<>();
+        for (SampleDataReader reader : schedule) {
+            fileSizes.put(reader, reader.getSize());
         }
+        schedule.sort(Comparator.comparing(fileSizes::get, Comparator.reverseOrder()));
 
-        return errorMessage;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.getValidationThreads(),
+                schedule.size()));
+        try {
+            Map<SampleDataReader, Future<?>> reads = new HashMap<>();
+            for (SampleDataReader reader : schedule) {
+                reads.put(reader, executor.submit(reader::read));
+            }
+            // the samples of a reader are written as soon as the readers before it are merged
+            for (SampleDataReader reader : readers) {
+                reads.get(reader).get();
+                mergeResult(reader, results, sampleDataWriter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataMapperException(e);
+        } catch (ExecutionException e) {
+            throw new DataMapperException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
-    private boolean checkForClient(PackageCompilation compilation, Collection<ModuleId> moduleIds,
-                                   Package currentPackage) {
+    private boolean isSingleFileProject(Collection<ModuleId> moduleIds, Package currentPackage) {
         if (moduleIds.size() == 1) {
             ModuleId moduleId = moduleIds.iterator().next();
-            if (moduleId.moduleName().equals(".") && currentPackage.packageName().toString().equals(".")) {
-                return false;
-            }
-        }
-        for (ModuleId moduleId : moduleIds) {
-            SemanticModel semanticModel = compilation.getSemanticModel(moduleId);
-            for (Symbol moduleSymbol : semanticModel.moduleSymbols()) {
-                if (moduleSymbol.kind() == SymbolKind.CLASS) {
-                    List<Qualifier> qualifiers = ((BallerinaClassSymbol) moduleSymbol).qualifiers();
-                    if (qualifiers.contains(Qualifier.CLIENT)) {
-                        return true;
-                    }
-                }
-            }
+            return moduleId.moduleName().equals(".") && currentPackage.packageName().toString().equals(".");
         }
         return false;
     }
@@ -0,0 +1,214 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the nested record samples found by a reader until they are written in file order. Only a bounded number of
+ * samples is kept in memory, the rest of them are spilled to a temporary file.
+ * <p>
+ * With a sample limit, only the first samples of every record type are kept. The writer selects the samples of the
+ * whole module, but it never needs more than the first ones of each reader when the first samples are written.
+ */
+class SampleDataBuffer implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_BUFFERED_CHARS = 256 * 1024;
+
+    private final List<RecordSchema> schemas;
+    private final List<String[]> records;
+    private final Set<String> typeNames;
+    private final int sampleLimit;
+    private final Map<RecordSchema, int[]> sampleCounts;
+    private final Map<RecordSchema, Integer> spilledSchemaIndex;
+    private final List<RecordSchema> spilledSchemas;
+    private int bufferedChars;
+    private long recordCount;
+    private Path spillFile;
+    private JsonGenerator spillGenerator;
+
+    SampleDataBuffer() {
+        this(0);
+    }
+
+    /**
+     * Creates a buffer of samples.
+     *
+     * @param sampleLimit maximum number of samples kept for a record type, or zero to keep every sample
+     */
+    SampleDataBuffer(int sampleLimit) {
+        this.sampleLimit = sampleLimit;
+        this.sampleCounts = new IdentityHashMap<>();
+        this.schemas = new ArrayList<>();
+        this.records = new ArrayList<>();
+        this.typeNames = new LinkedHashSet<>();
+        this.spilledSchemaIndex = new IdentityHashMap<>();
+        this.spilledSchemas = new ArrayList<>();
+    }
+
+    /**
+     * Adds a sample record.
+     *
+     * @param schema schema of the record
+     * @param values field values of the record in the order of the fields of the schema
+     */
+    void add(RecordSchema schema, String[] values) throws IOException {
+        typeNames.add(schema.getTypeName());
+        if (sampleLimit > 0) {
+            int[] sampleCount = sampleCounts.computeIfAbsent(schema, key -> new int[1]);
+            if (sampleCount[0] == sampleLimit) {
+                return;
+            }
+            sampleCount[0]++;
+        }
+        schemas.add(schema);
+        records.add(values);
+        recordCount++;
+        for (String value : values) {
+            if (value != null) {
+                bufferedChars += value.length();
+            }
+        }
+        if (bufferedChars > MAX_BUFFERED_CHARS) {
+            spill();
+        }
+    }
+
+    /**
+     * Whether a sample record of the given type would still be kept, so that readers do not collect the field values
+     * of samples which are dropped.
+     */
+    boolean accepts(RecordSchema schema) {
+        if (sampleLimit == 0) {
+            return true;
+        }
+        int[] sampleCount = sampleCounts.get(schema);
+        return sampleCount == null || sampleCount[0] < sampleLimit;
+    }
+
+    /**
+     * Returns the names of the record types which have samples.
+     */
+    Set<String> getTypeNames() {
+        return typeNames;
+    }
+
+    /**
+     * Returns the number of samples kept.
+     */
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Releases the temporary file held while samples are being added, so that finished readers which wait to be
+     * written do not keep file handles open.
+     */
+    void finish() throws IOException {
+        if (spillGenerator != null) {
+            spillGenerator.close();
+            spillGenerator = null;
+        }
+    }
+
+    /**
+     * Writes the samples in the order they were added.
+     *
+     * @param writer writer of the structure files
+     */
+    void drainTo(SampleDataWriter writer) throws IOException {
+        finish();
+        if (spillFile != null) {
+            try (JsonParser parser = JSON_FACTORY.createParser(spillFile.toFile())) {
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    parser.nextToken();
+                    RecordSchema schema = spilledSchemas.get(parser.getIntValue());
+                    String[] values = new String[schema.getFieldCount()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = parser.nextTextValue();
+                    }
+                    parser.nextToken();
+                    writer.write(schema, values);
+                }
+            }
+        }
+        for (int i = 0; i < records.size(); i++) {
+            writer.write(schemas.get(i), records.get(i));
+        }
+        close();
+    }
+
+    private void spill() throws IOException {
+        if (spillGenerator == null) {
+            if (spillFile == null) {
+                spillFile = Files.createTempFile("datamapper", ".samples");
+            }
+            spillGenerator = JSON_FACTORY.createGenerator(Files.newOutputStream(spillFile, StandardOpenOption.APPEND),
+                    JsonEncoding.UTF8);
+        }
+        for (int i = 0; i < records.size(); i++) {
+            RecordSchema schema = schemas.get(i);
+            Integer schemaIndex = spilledSchemaIndex.get(schema);
+            if (schemaIndex == null) {
+                schemaIndex = spilledSchemas.size();
+                spilledSchemas.add(schema);
+                spilledSchemaIndex.put(schema, schemaIndex);
+            }
+            spillGenerator.writeStartArray();
+            spillGenerator.writeNumber(schemaIndex);
+            for (String value : records.get(i)) {
+                spillGenerator.writeString(value);
+            }
+            spillGenerator.writeEndArray();
+        }
+        schemas.clear();
+        records.clear();
+        bufferedChars = 0;
+    }
+
+    /**
+     * Discards the samples which have not been written.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+        schemas.clear();
+        records.clear();
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+            spillFile = null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A consecutive range of the records of the top-level array of a sample data file, or of the lines of a JSON Lines
+ * sample data file.
+ */
+class SampleDataChunk {
+
+    private final String typeName;
+    private final long startOffset;
+    private final long endOffset;
+    private final int startLine;
+    private final int startColumn;
+    private final boolean lines;
+
+    /**
+     * Creates a chunk of records.
+     *
+     * @param typeName    type name of the records
+     * @param startOffset byte offset of the first record
+     * @param endOffset   byte offset right after the last record
+     * @param startLine   line number of the first record
+     * @param startColumn column number of the first record
+     */
+    SampleDataChunk(String typeName, long startOffset, long endOffset, int startLine, int startColumn) {
+        this(typeName, startOffset, endOffset, startLine, startColumn, false);
+    }
+
+    /**
+     * Creates a chunk of whole lines of a JSON Lines file, which holds one record per line.
+     *
+     * @param typeName    type name of the records
+     * @param startOffset byte offset of the first line
+     * @param endOffset   byte offset right after the last line
+     * @param startLine   line number of the first line
+     * @return chunk of lines
+     */
+    static SampleDataChunk ofLines(String typeName, long startOffset, long endOffset, int startLine) {
+        return new SampleDataChunk(typeName, startOffset, endOffset, startLine, 1, true);
+    }
+
+    private SampleDataChunk(String typeName, long startOffset, long endOffset, int startLine, int startColumn,
+                            boolean lines) {
+        this.typeName = typeName;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.startLine = startLine;
+        this.startColumn = startColumn;
+        this.lines = lines;
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    long getLength() {
+        return endOffset - startOffset;
+    }
+
+    int getStartLine() {
+        return startLine;
+    }
+
+    int getStartColumn() {
+        return startColumn;
+    }
+
+    /**
+     * Whether the chunk holds whole lines of a JSON Lines file, whose records are not enclosed in an array.
+     */
+    boolean isLines() {
+        return lines;
+    }
+
+    /**
+     * Whether the chunk holds all the lines of a JSON Lines file of the given size, which are then read like an
+     * unsplit file instead of being copied into memory.
+     */
+    boolean isWholeFile(long fileSize) {
+        return lines && startOffset == 0 && endOffset == fileSize;
+    }
+
+    /**
+     * Reads the records of the chunk as the content of a JSON array, or as a sequence of JSON values for a chunk of
+     * lines.
+     *
+     * @param path path of the sample data file
+     * @return the records of the chunk enclosed in square brackets, or the lines of the chunk
+     */
+    byte[] readRecords(Path path) throws IOException {
+        int prefixLength = lines ? 0 : 1;
+        byte[] records = new byte[Math.toIntExact(getLength() + 2L * prefixLength)];
+        if (!lines) {
+            records[0] = '[';
+            records[records.length - 1] = ']';
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records, prefixLength, records.length - 2 * prefixLength);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = startOffset;
+            while (buffer.hasRemaining()) {
+                int count = channel.read(buffer, position);
+                if (count < 0) {
+                    throw new EOFException(path.toString());
+                }
+                position += count;
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.ballerinax.datamapper.util.Utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts JSON sample data files, {@code <RECORD_NAME>_data.json}, into the binary CBOR or Smile formats, which are
+ * parsed faster and take less space. The records are copied as a stream of tokens, hence files of any size are
+ * converted without holding them in memory. The JSON file is kept, and has to be removed once the converted file
+ * replaces it, since both of them would be validated otherwise.
+ * <p>
+ * Usage: {@code SampleDataConverter cbor|smile <JSON_FILE>...}
+ */
+public final class SampleDataConverter {
+
+    static final String CBOR_FORMAT = "cbor";
+    static final String SMILE_FORMAT = "smile";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private SampleDataConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: SampleDataConverter cbor|smile <JSON_FILE>...");
+        }
+        for (int i = 1; i < args.length; i++) {
+            convert(Paths.get(args[i]), args[0]);
+        }
+    }
+
+    /**
+     * Converts a JSON sample data file into a binary sample data file next to it.
+     *
+     * @param jsonFile JSON sample data file
+     * @param format   binary format, either {@code cbor} or {@code smile}
+     * @return converted sample data file, which is only written if its content changed
+     */
+    static Path convert(Path jsonFile, String format) throws IOException {
+        String fileName = jsonFile.getFileName().toString();
+        if (!fileName.endsWith(SampleDataReader.JSON_FILE_SUFFIX)) {
+            throw new IllegalArgumentException("not a JSON sample data file: " + jsonFile);
+        }
+        JsonFactory binaryFactory;
+        String suffix;
+        if (CBOR_FORMAT.equalsIgnoreCase(format)) {
+            binaryFactory = new CBORFactory();
+            suffix = SampleDataReader.CBOR_FILE_SUFFIX;
+        } else if (SMILE_FORMAT.equalsIgnoreCase(format)) {
+            binaryFactory = new SmileFactory();
+            suffix = SampleDataReader.SMILE_FILE_SUFFIX;
+        } else {
+            throw new IllegalArgumentException("unsupported sample data format: " + format);
+        }
+        Path binaryFile = jsonFile.resolveSibling(fileName.substring(0, fileName.length() -
+                SampleDataReader.JSON_FILE_SUFFIX.length()) + suffix);
+
+        Path tempFile = Files.createTempFile(binaryFile.toAbsolutePath().getParent(), binaryFile.getFileName()
+                .toString(), ".tmp");
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonFile.toFile());
+             OutputStream outputStream = Files.newOutputStream(tempFile);
+             JsonGenerator generator = binaryFactory.createGenerator(outputStream)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Utils.replaceIfChanged(tempFile, binaryFile);
+        return binaryFile;
+    }
+}
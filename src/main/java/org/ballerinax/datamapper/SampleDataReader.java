@@ -0,0 +1,706 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.base.ParserBase;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.ballerina.tools.diagnostics.Location;
+import org.ballerinax.datamapper.diagnostic.DataMapperDiagnosticLog;
+import org.ballerinax.datamapper.diagnostic.DiagnosticAggregator;
+import org.ballerinax.datamapper.diagnostic.DiagnosticErrorCode;
+import org.ballerinax.datamapper.exceptions.DataMapperException;
+import org.wso2.ballerinalang.compiler.diagnostic.BLangDiagnosticLocation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a sample data file, or a chunk of the records of a sample data file, and validates the records against the
+ * record schemas. Every file or chunk is read by its own reader, which keeps the diagnostics and the nested record
+ * samples found in it.
+ */
+class SampleDataReader {
+
+    static final String JSON_FILE_SUFFIX = "_data.json";
+    static final String JSON_LINES_FILE_SUFFIX = "_data.jsonl";
+    static final String CBOR_FILE_SUFFIX = "_data.cbor";
+    static final String SMILE_FILE_SUFFIX = "_data.smile";
+    static final String GZIP_FILE_SUFFIX = "_data.json.gz";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+    private static final long MAPPED_READ_THRESHOLD = 1024 * 1024;
+    private static final int INITIAL_DEPTH = 8;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    // the source named by invalid JSON content messages, which read every text file through a reader before
+    private static final String ERROR_SOURCE = "(InputStreamReader)";
+
+    private final String path;
+    private final SampleDataChunk chunk;
+    private final Map<String, RecordSchema> recordSchemas;
+    private final DiagnosticAggregator diagnostics;
+    private final SampleDataBuffer sampleData;
+    private final Set<String> typeNames;
+    private final boolean binary;
+    private JsonParser parser;
+    private ParserBase tokenParser;
+    private ByteBuffer content;
+    private boolean malformed;
+    private long recordCount;
+    private long nestedRecordCount;
+
+    // the records and arrays being read, from a record of the data array down to the innermost value
+    private int depth;
+    private RecordSchema[] frameSchemas = new RecordSchema[INITIAL_DEPTH];
+    private int[] frameFields = new int[INITIAL_DEPTH];
+    private boolean[] frameArrays = new boolean[INITIAL_DEPTH];
+    private int[] frameAttributeCounts = new int[INITIAL_DEPTH];
+    private String[][] frameSamples = new String[INITIAL_DEPTH][];
+
+    // the position following the opening brace of the record started last
+    private int recordLine;
+    private int recordColumn;
+    private long recordOffset;
+
+    SampleDataReader(String path, Map<String, RecordSchema> recordSchemas) {
+        this(path, null, recordSchemas);
+    }
+
+    SampleDataReader(String path, SampleDataChunk chunk, Map<String, RecordSchema> recordSchemas) {
+        this(path, chunk, recordSchemas, new SampleDataBuffer());
+    }
+
+    SampleDataReader(String path, SampleDataChunk chunk, Map<String, RecordSchema> recordSchemas,
+                     SampleDataBuffer sampleData) {
+        this(path, chunk, recordSchemas, sampleData, 0);
+    }
+
+    /**
+     * @param diagnosticLimit maximum number of problems found before reading stops, or zero to read the
+     *                        whole content
+     */
+    SampleDataReader(String path, SampleDataChunk chunk, Map<String, RecordSchema> recordSchemas,
+                     SampleDataBuffer sampleData, int diagnosticLimit) {
+        this.path = path;
+        this.chunk = chunk;
+        this.recordSchemas = recordSchemas;
+        this.diagnostics = new DiagnosticAggregator(diagnosticLimit);
+        this.sampleData = sampleData;
+        this.typeNames = new LinkedHashSet<>();
+        this.binary = isBinary(path);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of bytes read by this reader.
+     */
+    long getSize() throws IOException {
+        return chunk == null ? Files.size(Paths.get(path)) : chunk.getLength();
+    }
+
+    /**
+     * Returns the diagnostics of the problems found by this reader.
+     */
+    DataMapperDiagnosticLog getDataMapperLog() {
+        DataMapperDiagnosticLog dataMapperLog = new DataMapperDiagnosticLog();
+        diagnostics.writeTo(dataMapperLog, new BLangDiagnosticLocation(path, 0, 0, 0, 0));
+        return dataMapperLog;
+    }
+
+    /**
+     * Returns the problems found by this reader, which are merged with the ones of the other chunks of the file.
+     */
+    DiagnosticAggregator getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Returns the nested record samples found in the file, which have to be either written or discarded.
+     */
+    SampleDataBuffer getSampleData() {
+        return sampleData;
+    }
+
+    /**
+     * Returns the names of the record types given in the file, including the ones which are not known.
+     */
+    Set<String> getTypeNames() {
+        return typeNames;
+    }
+
+    /**
+     * Returns the number of records of the data array read, which are validated against the record type of the file.
+     */
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of nested records read, which are validated against the record type of their field.
+     */
+    long getNestedRecordCount() {
+        return nestedRecordCount;
+    }
+
+    boolean isChunk() {
+        return chunk != null;
+    }
+
+    /**
+     * Whether reading stopped at content which is not valid JSON.
+     */
+    boolean isMalformed() {
+        return malformed;
+    }
+
+    /**
+     * Validates the content. The content and the parser are released once it is read, since the locations of the
+     * problems are resolved as they are found, so that readers which wait to be merged only keep their results.
+     */
+    void read() {
+        try {
+            content = readContent();
+            parseContent();
+        } catch (IOException e) {
+            throw new DataMapperException(e);
+        } finally {
+            content = null;
+            parser = null;
+            tokenParser = null;
+        }
+    }
+
+    private void parseContent() throws IOException {
+        try (JsonParser jsonParser = createParser()) {
+            parser = jsonParser;
+            // the parsers created for UTF-8 content give the token locations without creating location objects, while
+            // the content of binary formats has no lines
+            tokenParser = binary ? null : (ParserBase) jsonParser;
+            // problems are reported before the parser is closed, since closing it moves its location to the end of the
+            // content
+            try {
+                readDataArray();
+            } catch (JsonProcessingException e) {
+                malformed = true;
+                Location position = getParserLocation();
+                diagnostics.add(() -> position, DiagnosticErrorCode.ERROR_INVALID_JSON_CONTENT, getErrorMessage(e));
+            } catch (ZipException | EOFException e) {
+                // a truncated or corrupt compressed file ends where it cannot be decompressed further
+                malformed = true;
+                Location position = getParserLocation();
+                diagnostics.add(() -> position, DiagnosticErrorCode.ERROR_INVALID_JSON_CONTENT, e.getMessage());
+            }
+            sampleData.finish();
+        } catch (ZipException | EOFException e) {
+            // the header of a compressed file is read when the parser is created
+            malformed = true;
+            diagnostics.add(() -> new BLangDiagnosticLocation(path, 0, 0, 0, 0),
+                    DiagnosticErrorCode.ERROR_INVALID_JSON_CONTENT, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the location the parser stopped at in the sample data file.
+     */
+    private Location getParserLocation() {
+        if (binary) {
+            return getRecordIndexLocation();
+        }
+        JsonLocation location = parser.getCurrentLocation();
+        return new BLangDiagnosticLocation(path, lineOf(location) - 1, lineOf(location) - 1,
+                columnOf(location) - 1, columnOf(location) - 1);
+    }
+
+    /**
+     * Reads the name of the record type declared by a sample data file, which is the first field name of the file.
+     * The records of a file are validated against this type only. A JSON Lines file may declare its record type with
+     * a header line holding the type name as a string.
+     *
+     * @param path path of the sample data file
+     * @return fully qualified name of the record type, or null if the file does not start with a field name or a
+     *         header line
+     */
+    static String readTypeName(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        try (JsonParser parser = isGzip(fileName) ? JSON_FACTORY.createParser(openGzip(path)) :
+                getFactory(fileName).createParser(path.toFile())) {
+            JsonToken token = parser.nextToken();
+            if (isJsonLines(path.getFileName().toString())) {
+                return token == JsonToken.VALUE_STRING ? parser.getText() : null;
+            }
+            if (token != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                return null;
+            }
+            return parser.getCurrentName();
+        } catch (JsonProcessingException | ZipException | EOFException e) {
+            // malformed files, and compressed files which cannot be decompressed, are reported when they are read
+            return null;
+        }
+    }
+
+    /**
+     * Whether a file is a sample data file, in any of the supported formats.
+     */
+    static boolean isSampleDataFile(String fileName) {
+        return fileName.endsWith(JSON_FILE_SUFFIX) || isJsonLines(fileName) || isBinary(fileName) || isGzip(fileName);
+    }
+
+    /**
+     * Whether a sample data file is a gzip compressed JSON file, which is decompressed while it is parsed and is
+     * always read as a whole.
+     */
+    static boolean isGzip(String fileName) {
+        return fileName.endsWith(GZIP_FILE_SUFFIX);
+    }
+
+    /**
+     * Opens a gzip compressed JSON file as a stream of characters. The parser gives the locations of a character
+     * stream in characters, hence the locations are right without the decompressed bytes of the lines at hand.
+     */
+    private static Reader openGzip(Path path) throws IOException {
+        InputStream inputStream = Files.newInputStream(path);
+        try {
+            return new InputStreamReader(new GZIPInputStream(inputStream, GZIP_BUFFER_SIZE), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a sample data file is in a binary format, CBOR or Smile, whose diagnostics are reported at the index of
+     * the record they were found in, since the content has no lines.
+     */
+    static boolean isBinary(String fileName) {
+        return fileName.endsWith(CBOR_FILE_SUFFIX) || fileName.endsWith(SMILE_FILE_SUFFIX);
+    }
+
+    private static JsonFactory getFactory(String fileName) {
+        if (fileName.endsWith(CBOR_FILE_SUFFIX)) {
+            return CBOR_FACTORY;
+        }
+        return fileName.endsWith(SMILE_FILE_SUFFIX) ? SMILE_FACTORY : JSON_FACTORY;
+    }
+
+    /**
+     * Whether a sample data file holds one record per line, instead of an object holding an array of records.
+     */
+    static boolean isJsonLines(String fileName) {
+        return fileName.endsWith(JSON_LINES_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the content to be parsed. Small files are read into memory, while larger ones are memory-mapped, so that
+     * neither of them holds a file handle while the content is parsed. A JSON Lines file which is not split is read
+     * the same way.
+     *
+     * @return UTF-8 content, or null if the file is too large to be mapped at once or is compressed
+     */
+    private ByteBuffer readContent() throws IOException {
+        if (isGzip(path)) {
+            return null;
+        }
+        Path filePath = Paths.get(path);
+        long size = Files.size(filePath);
+        if (chunk != null && !chunk.isWholeFile(size)) {
+            return ByteBuffer.wrap(chunk.readRecords(filePath));
+        }
+        if (size < MAPPED_READ_THRESHOLD) {
+            return ByteBuffer.wrap(Files.readAllBytes(filePath));
+        }
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Creates a parser which decodes the UTF-8 content itself, instead of reading it through a character reader.
+     */
+    private JsonParser createParser() throws IOException {
+        JsonFactory factory = getFactory(path);
+        if (isGzip(path)) {
+            return factory.createParser(openGzip(Paths.get(path)));
+        }
+        if (content == null) {
+            return factory.createParser(Files.newInputStream(Paths.get(path)));
+        }
+        if (content.hasArray()) {
+            return factory.createParser(content.array(), content.arrayOffset(), content.limit());
+        }
+        return factory.createParser(new ByteBufferBackedInputStream(content.duplicate()));
+    }
+
+    /**
+     * Maps a line number reported by the parser to the line number in the sample data file.
+     */
+    private int lineOf(int line) {
+        if (chunk == null) {
+            return line;
+        }
+        return line + chunk.getStartLine() - 1;
+    }
+
+    private int lineOf(JsonLocation location) {
+        return lineOf(location.getLineNr());
+    }
+
+    /**
+     * Maps a column number reported by the parser to the column number in the sample data file. Only the first line
+     * of a chunk is shifted, since the chunk starts in the middle of that line.
+     *
+     * @param line       line number reported by the parser
+     * @param byteColumn byte based column number reported by the parser
+     * @param byteOffset byte offset of the location in the parsed content
+     */
+    private int columnOf(int line, int byteColumn, long byteOffset) {
+        int column = getCharacterColumn(byteColumn, byteOffset);
+        if (chunk == null || line != 1 || chunk.isLines()) {
+            return column;
+        }
+        // the chunk is parsed with an opening bracket prepended to it
+        return column + chunk.getStartColumn() - 2;
+    }
+
+    private int columnOf(JsonLocation location) {
+        return columnOf(location.getLineNr(), location.getColumnNr(), location.getByteOffset());
+    }
+
+    /**
+     * Converts the byte based column number reported by the parser to a character based one, by counting the bytes
+     * of the line which do not continue a multibyte UTF-8 sequence.
+     */
+    private int getCharacterColumn(int byteColumn, long byteOffset) {
+        long lineStart = byteOffset - byteColumn + 1;
+        if (content == null || lineStart < 0 || byteOffset > content.limit()) {
+            return byteColumn;
+        }
+        int column = 1;
+        for (int i = (int) lineStart; i < byteOffset; i++) {
+            if ((content.get(i) & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Returns the error message with the location in the sample data file, since the location included by the parser
+     * is relative to the parsed content.
+     */
+    private String getErrorMessage(JsonProcessingException e) {
+        JsonLocation location = e.getLocation();
+        if (location == null || binary) {
+            return e.getOriginalMessage();
+        }
+        return e.getOriginalMessage() + "\n at [Source: " + ERROR_SOURCE + "; line: " +
+                lineOf(location) + ", column: " + columnOf(location) + "]";
+    }
+
+    /**
+     * Returns the location of the current token in the sample data file, spanning the given number of characters.
+     */
+    private Location getTokenLocation(int length) {
+        if (binary) {
+            return getRecordIndexLocation();
+        }
+        int line = lineOf(tokenParser.getTokenLineNr()) - 1;
+        int column = columnOf(tokenParser.getTokenLineNr(), getTokenColumn(), getTokenOffset()) - 1;
+        return new BLangDiagnosticLocation(path, line, line, column, column + length);
+    }
+
+    /**
+     * Returns the byte based column number of the current token. The parser keeps the position of a token one byte
+     * past its first byte.
+     */
+    private int getTokenColumn() {
+        return tokenParser.getTokenColumnNr() - 1;
+    }
+
+    /**
+     * Returns the byte offset of the current token in the parsed content.
+     */
+    private long getTokenOffset() {
+        return tokenParser.getTokenCharacterOffset() - 1;
+    }
+
+    /**
+     * Returns the location of the current field name in the sample data file, spanning the given number of
+     * characters. The token position of a field name given by the parser is the position of its value.
+     */
+    private Location getFieldNameLocation(int length) {
+        if (binary) {
+            return getRecordIndexLocation();
+        }
+        JsonLocation location = parser.getTokenLocation();
+        int line = lineOf(location) - 1;
+        int column = columnOf(location) - 1;
+        return new BLangDiagnosticLocation(path, line, line, column, column + length);
+    }
+
+    /**
+     * Returns the location of a record being ended in the sample data file. The location starts after the opening
+     * brace of the innermost record started last within it, and ends at the end of the current token.
+     */
+    private Location getRecordLocation() {
+        if (binary) {
+            return getRecordIndexLocation();
+        }
+        JsonLocation endLocation = parser.getCurrentLocation();
+        return new BLangDiagnosticLocation(path,
+                lineOf(recordLine) - 1, lineOf(endLocation) - 1,
+                columnOf(recordLine, recordColumn, recordOffset) - 1,
+                columnOf(endLocation) - 1);
+    }
+
+    /**
+     * Returns the location of the record of the data array being read in a binary sample data file, whose line is the
+     * index of the record.
+     */
+    private Location getRecordIndexLocation() {
+        int index = (int) Math.max(0, recordCount - 1);
+        return new BLangDiagnosticLocation(path, index, index, 0, 0);
+    }
+
+    /**
+     * Reads the records of the data array and validates them against the record type of the file. Records and arrays
+     * are validated with an explicit stack of frames, so that values nested to any depth are read without recursion,
+     * and every value is checked against the precomputed kind of its field.
+     */
+    private void readDataArray() throws IOException {
+        RecordSchema typeRecord = readTypeRecord();
+        if (typeRecord == null) {
+            return;
+        }
+        depth = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (diagnostics.isLimitReached()) {
+                // the rest of a file with too many problems is not validated
+                return;
+            }
+            if (depth == 0) {
+                if (token == JsonToken.END_ARRAY) {
+                    // only the first type of a file is validated, the rest of the content is only checked to be JSON
+                    while (parser.nextToken() != null) {
+                        parser.skipChildren();
+                    }
+                    return;
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    recordCount++;
+                    pushFrame(typeRecord, -1, false, null);
+                } else {
+                    // values of the data array which are not records are not validated
+                    parser.skipChildren();
+                }
+                continue;
+            }
+            int frame = depth - 1;
+            RecordSchema schema = frameSchemas[frame];
+            switch (token) {
+                case FIELD_NAME:
+                    readFieldName(frame, schema);
+                    break;
+                case END_OBJECT:
+                    endRecord(frame, schema);
+                    break;
+                case END_ARRAY:
+                    depth--;
+                    break;
+                case VALUE_EMBEDDED_OBJECT:
+                case NOT_AVAILABLE:
+                    diagnostics.add(() -> getTokenLocation(1), DiagnosticErrorCode.ERROR_INVALID_JSON_TOKEN, token);
+                    break;
+                default:
+                    int field = frameFields[frame];
+                    if (frameArrays[frame]) {
+                        readValue(token, schema, field, schema.getElementKind(field),
+                                schema.isOptionalElement(field), null);
+                    } else {
+                        readValue(token, schema, field, schema.getFieldKind(field), schema.isOptional(field),
+                                frameSamples[frame]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads up to the start of the data array and returns the schema its records are validated against. A file is
+     * an object with the type name as its first field name, while the records of a chunk are read as if the type name
+     * of the file has already been read. A JSON Lines file is always read in chunks.
+     *
+     * @return schema of the record type, or null if the records cannot be validated
+     */
+    private RecordSchema readTypeRecord() throws IOException {
+        String typeName;
+        if (chunk != null) {
+            typeName = chunk.getTypeName();
+        } else {
+            if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                return null;
+            }
+            typeName = parser.getCurrentName();
+        }
+        typeNames.add(typeName);
+        RecordSchema typeRecord = recordSchemas.get(typeName);
+        if (typeRecord == null) {
+            return null;
+        }
+        // the lines of a JSON Lines file are records which are not enclosed in an array
+        if (chunk != null && chunk.isLines()) {
+            return typeRecord;
+        }
+        return parser.nextToken() == JsonToken.START_ARRAY ? typeRecord : null;
+    }
+
+    private void readFieldName(int frame, RecordSchema schema) throws IOException {
+        frameAttributeCounts[frame]++;
+        String name = parser.getCurrentName();
+        // the field following the previous field of the record is checked first
+        int field = schema.indexOf(name, frameFields[frame] + 1);
+        if (field < 0) {
+            diagnostics.add(() -> getFieldNameLocation(name.length() + 2),
+                    DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_NAME, schema.getTypeName(), name);
+            // the value of an unknown attribute cannot be validated
+            parser.nextToken();
+            parser.skipChildren();
+            return;
+        }
+        frameFields[frame] = field;
+    }
+
+    /**
+     * Validates a value of a field or of an element of an array field, starting a new frame for the records and
+     * arrays which are validated further.
+     *
+     * @param sample field values of the sample of the enclosing record, or null if it is not sampled
+     */
+    private void readValue(JsonToken token, RecordSchema schema, int field, FieldKind kind, boolean optional,
+                           String[] sample) throws IOException {
+        if (token == JsonToken.START_OBJECT && kind == FieldKind.RECORD) {
+            nestedRecordCount++;
+            RecordSchema nestedSchema = schema.getNestedSchema(field);
+            pushFrame(nestedSchema, -1, false,
+                    sampleData.accepts(nestedSchema) ? nestedSchema.newSampleRecord() : null);
+            return;
+        }
+        if (token == JsonToken.START_ARRAY && kind == FieldKind.ARRAY) {
+            pushFrame(schema, field, true, null);
+            return;
+        }
+        if (kind.accepts(token, optional)) {
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (sample != null && token != JsonToken.VALUE_NULL &&
+                    (kind != FieldKind.ANY || token == JsonToken.VALUE_STRING)) {
+                // the writer gives a value the JSON type of its field, hence values of fields which are not checked
+                // are only sampled when they are strings
+                sample[field] = parser.getText();
+            }
+            return;
+        }
+        int length = token == JsonToken.VALUE_STRING ? parser.getTextLength() + 2 : parser.getTextLength();
+        if (token == JsonToken.VALUE_STRING && kind.acceptsQuoted(parser.getText())) {
+            // quoted numbers and booleans were accepted by earlier releases, hence they are only warned about
+            diagnostics.add(() -> getTokenLocation(length), DiagnosticErrorCode.WARNING_QUOTED_ATTRIBUTE_VALUE,
+                    schema.getTypeName(), schema.getFieldName(field), schema.getFieldType(field));
+            if (sample != null) {
+                sample[field] = parser.getText();
+            }
+            return;
+        }
+        diagnostics.add(() -> getTokenLocation(length), DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_TYPE,
+                schema.getTypeName(), schema.getFieldName(field), schema.getFieldType(field),
+                FieldKind.describe(token));
+        parser.skipChildren();
+    }
+
+    private void endRecord(int frame, RecordSchema schema) throws IOException {
+        int attributeCount = frameAttributeCounts[frame];
+        if (attributeCount != schema.getFieldCount()) {
+            // the type name is not part of the message, but tells the same counts of different types apart
+            diagnostics.add(this::getRecordLocation, DiagnosticErrorCode.ERROR_INVALID_ATTRIBUTE_COUNT,
+                    schema.getFieldCount(), attributeCount, schema.getTypeName());
+        } else if (frameSamples[frame] != null) {
+            sampleData.add(schema, frameSamples[frame]);
+        }
+        frameSamples[frame] = null;
+        depth--;
+    }
+
+    /**
+     * Starts a frame for a record, or for an array field whose elements are validated against the field.
+     *
+     * @param schema schema of the record, or of the record with the array field
+     * @param field  position of the array field, or -1 for a record
+     * @param array  whether the frame is an array
+     * @param sample field values of the sample of the record, or null if the record is not sampled
+     */
+    private void pushFrame(RecordSchema schema, int field, boolean array, String[] sample) {
+        if (depth == frameSchemas.length) {
+            int capacity = depth * 2;
+            frameSchemas = Arrays.copyOf(frameSchemas, capacity);
+            frameFields = Arrays.copyOf(frameFields, capacity);
+            frameArrays = Arrays.copyOf(frameArrays, capacity);
+            frameAttributeCounts = Arrays.copyOf(frameAttributeCounts, capacity);
+            frameSamples = Arrays.copyOf(frameSamples, capacity);
+        }
+        frameSchemas[depth] = schema;
+        frameFields[depth] = field;
+        frameArrays[depth] = array;
+        frameAttributeCounts[depth] = 0;
+        frameSamples[depth] = sample;
+        if (!array && !binary) {
+            recordLine = tokenParser.getTokenLineNr();
+            recordColumn = getTokenColumn() + 1;
+            recordOffset = getTokenOffset() + 1;
+        }
+        depth++;
+    }
+}
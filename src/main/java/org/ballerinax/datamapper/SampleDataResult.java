@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.datamapper;
+
+import org.ballerinax.datamapper.diagnostic.DataMapperDiagnosticLog;
+import org.ballerinax.datamapper.diagnostic.DiagnosticAggregator;
+import org.wso2.ballerinalang.compiler.diagnostic.BLangDiagnosticLocation;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Outcome of validating a sample data file, which is either merged from the readers of the file or restored from
+ * the analysis cache.
+ */
+class SampleDataResult {
+
+    private final DiagnosticAggregator diagnostics;
+    private DataMapperDiagnosticLog dataMapperLog;
+    private String path;
+    private final Set<String> typeNames;
+    private final Set<String> sampleTypeNames;
+    private boolean malformed;
+    private long recordCount;
+    private long nestedRecordCount;
+
+    SampleDataResult() {
+        this(0);
+    }
+
+    /**
+     * @param diagnosticLimit maximum number of problems of the file, or zero to keep every problem
+     */
+    SampleDataResult(int diagnosticLimit) {
+        this.diagnostics = new DiagnosticAggregator(diagnosticLimit);
+        this.typeNames = new TreeSet<>();
+        this.sampleTypeNames = new TreeSet<>();
+    }
+
+    /**
+     * Merges the outcome of a reader of the file. Readers have to be merged in the order of the content they read.
+     */
+    void add(SampleDataReader reader) {
+        path = reader.getPath();
+        diagnostics.addAll(reader.getDiagnostics());
+        typeNames.addAll(reader.getTypeNames());
+        sampleTypeNames.addAll(reader.getSampleData().getTypeNames());
+        malformed |= reader.isMalformed();
+        recordCount += reader.getRecordCount();
+        nestedRecordCount += reader.getNestedRecordCount();
+    }
+
+    void addTypeName(String typeName) {
+        typeNames.add(typeName);
+    }
+
+    void addSampleTypeName(String typeName) {
+        sampleTypeNames.add(typeName);
+    }
+
+    /**
+     * Returns the diagnostics of the file. The occurrences of the same problem in the readers of the file are
+     * reported once, hence the readers have to be merged before the diagnostics are requested.
+     */
+    DataMapperDiagnosticLog getDataMapperLog() {
+        if (dataMapperLog == null) {
+            dataMapperLog = new DataMapperDiagnosticLog();
+            diagnostics.writeTo(dataMapperLog, new BLangDiagnosticLocation(path, 0, 0, 0, 0));
+        }
+        return dataMapperLog;
+    }
+
+    /**
+     * Returns the names of the record types the records of the file were validated against.
+     */
+    Set<String> getTypeNames() {
+        return typeNames;
+    }
+
+    /**
+     * Returns the names of the nested record types which have samples in the file.
+     */
+    Set<String> getSampleTypeNames() {
+        return sampleTypeNames;
+    }
+
+    /**
+     * Returns the number of records read from the file. Results restored from the analysis cache have not read any.
+     */
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the number of nested records read from the file.
+     */
+    long getNestedRecordCount() {
+        return nestedRecordCount;
+    }
+
+    /**
+     * Whether reading stopped at content which is not valid JSON.
+     */
+    boolean isMalformed() {
+        return malformed;
+    }
+
+    /**
+     * Whether reading stopped since the file has more problems than the limit.
+     */
+    boolean isDiagnosticLimitReached() {
+        return diagnostics.isLimitReached();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits a large sample data file into chunks of records, which can be validated independently.
+ * <p>
+ * The raw bytes of the file are scanned only to track strings and nesting depth, which is enough to find the
+ * boundaries of the elements of the top-level array. Files which do not have the usual structure of a single type
+ * name holding an array of objects are not split. JSON Lines files are split at line boundaries.
+ */
+class SampleDataSplitter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private SampleDataSplitter() {
+    }
+
+    /**
+     * Splits the records of the given sample data file into chunks of at least the given size.
+     *
+     * @param path      path of the sample data file
+     * @param chunkSize minimum number of bytes in a chunk
+     * @return chunks of the records in file order, or an empty list if the file cannot be split
+     */
+    static List<SampleDataChunk> split(Path path, long chunkSize) throws IOException {
+        String typeName;
+        long arrayOffset;
+        try (JsonParser parser = JSON_FACTORY.createParser(path.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                return Collections.emptyList();
+            }
+            typeName = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return Collections.emptyList();
+            }
+            arrayOffset = parser.getTokenLocation().getByteOffset();
+        } catch (JsonProcessingException e) {
+            // malformed files are reported by the sequential reader
+            return Collections.emptyList();
+        }
+
+        List<SampleDataChunk> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        int line = 1;
+        int column = 0;
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean arrayClosed = false;
+        boolean objectClosed = false;
+        byte previous = 0;
+        long chunkStart = -1;
+        int chunkLine = 0;
+        int chunkColumn = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte current = buffer.get();
+                    if (current == '\n') {
+                        if (previous != '\r') {
+                            line++;
+                        }
+                        column = 0;
+                    } else if (current == '\r') {
+                        line++;
+                        column = 0;
+                    } else if ((current & 0xC0) != 0x80) {
+                        // columns are counted in characters, hence the bytes continuing a UTF-8 sequence are skipped
+                        column++;
+                    }
+                    previous = current;
+
+                    if (position <= arrayOffset) {
+                        position++;
+                        continue;
+                    }
+
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (current == '\\') {
+                            escaped = true;
+                        } else if (current == '"') {
+                            inString = false;
+                        }
+                    } else if (objectClosed || arrayClosed) {
+                        if (isWhitespace(current)) {
+                            position++;
+                            continue;
+                        }
+                        if (objectClosed || current != '}') {
+                            // only the end of the root object may follow the array
+                            return Collections.emptyList();
+                        }
+                        objectClosed = true;
+                    } else if (current == '"') {
+                        if (depth == 0) {
+                            return Collections.emptyList();
+                        }
+                        inString = true;
+                    } else if (current == '{' || current == '[') {
+                        if (depth == 0) {
+                            if (current != '{') {
+                                return Collections.emptyList();
+                            }
+                            if (chunkStart < 0) {
+                                chunkStart = position;
+                                chunkLine = line;
+                                chunkColumn = column;
+                            }
+                        }
+                        depth++;
+                    } else if (current == '}' || current == ']') {
+                        if (depth == 0) {
+                            if (current != ']') {
+                                return Collections.emptyList();
+                            }
+                            arrayClosed = true;
+                            if (chunkStart >= 0) {
+                                chunks.add(new SampleDataChunk(typeName, chunkStart, position, chunkLine,
+                                        chunkColumn));
+                                chunkStart = -1;
+                            }
+                        } else {
+                            depth--;
+                            if (depth == 0 && position + 1 - chunkStart >= chunkSize) {
+                                chunks.add(new SampleDataChunk(typeName, chunkStart, position + 1, chunkLine,
+                                        chunkColumn));
+                                chunkStart = -1;
+                            }
+                        }
+                    } else if (depth == 0 && current != ',' && !isWhitespace(current)) {
+                        // a scalar value in the top-level array
+                        return Collections.emptyList();
+                    }
+                    position++;
+                }
+                buffer.clear();
+            }
+        }
+
+        if (!objectClosed || chunks.size() < 2) {
+            return Collections.emptyList();
+        }
+        return chunks;
+    }
+
+    /**
+     * Splits the lines of the given JSON Lines file into chunks of at most the given size, so that the memory a chunk
+     * is read into is bounded by the chunk size rather than by the size of the file. Every chunk ends at the end of a
+     * line, hence the lines of a chunk are read without the rest of the file, and a line longer than the chunk size
+     * is a chunk of its own.
+     *
+     * @param path      path of the JSON Lines file
+     * @param typeName  type name of the records of the file
+     * @param chunkSize maximum number of bytes in a chunk, or zero to read the file as a single chunk
+     * @return chunks of the lines in file order, at least one of them
+     */
+    static List<SampleDataChunk> splitLines(Path path, String typeName, long chunkSize) throws IOException {
+        List<SampleDataChunk> chunks = new ArrayList<>();
+        long size = Files.size(path);
+        if (chunkSize <= 0 || size < 2 * chunkSize) {
+            chunks.add(SampleDataChunk.ofLines(typeName, 0, size, 1));
+            return chunks;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        int line = 1;
+        byte previous = 0;
+        long chunkStart = 0;
+        int chunkLine = 1;
+        long lineEnd = 0;
+        int lineEndLine = 1;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte current = buffer.get();
+                    position++;
+                    // lines are counted like the parser does, which takes a lone carriage return as a line break
+                    if (current == '\r' || (current == '\n' && previous != '\r')) {
+                        line++;
+                    }
+                    previous = current;
+                    if (current == '\n') {
+                        lineEnd = position;
+                        lineEndLine = line;
+                    }
+                    // the chunk ends with the last whole line which fits into it
+                    if (position - chunkStart > chunkSize && lineEnd > chunkStart) {
+                        chunks.add(SampleDataChunk.ofLines(typeName, chunkStart, lineEnd, chunkLine));
+                        chunkStart = lineEnd;
+                        chunkLine = lineEndLine;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        if (chunkStart < size) {
+            chunks.add(SampleDataChunk.ofLines(typeName, chunkStart, size, chunkLine));
+        }
+        return chunks;
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+}
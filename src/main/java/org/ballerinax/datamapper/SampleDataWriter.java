@@ -0,0 +1,383 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.datamapper.util.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Writes the structure files of the nested record types, {@code <RECORD_NAME>_data.json}, as the samples are
+ * validated. The output of every record type is buffered up to a bounded size and then appended to a temporary file,
+ * which replaces the structure file once all the samples of the build are written.
+ * <p>
+ * With a sample limit, either the first samples of every record type are written, or a uniform selection of them is
+ * made by reservoir sampling. The selected samples are written in the order they were found, and the selection only
+ * depends on the seed and the samples, so that the structure files are reproducible.
+ * <p>
+ * Structure files which already exist are not overwritten, unless they are regenerated. A regenerated structure file
+ * is only replaced if its content changed, so that unchanged files keep their modification time. When merging, the
+ * samples of an existing structure file are kept and only the samples it does not have yet are added to it.
+ */
+class SampleDataWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_BUFFERED_BYTES = 64 * 1024;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Function<String, Path> structureFilePaths;
+    private final Map<String, StructureFile> structureFiles;
+    private final Map<String, Boolean> existingStructureFiles;
+    private final int sampleLimit;
+    private final boolean reservoirSampling;
+    private final long samplingSeed;
+    private final boolean regeneration;
+    private final boolean merging;
+
+    /**
+     * Creates a writer of structure files.
+     *
+     * @param structureFilePaths function which returns the path of the structure file of a record type
+     */
+    SampleDataWriter(Function<String, Path> structureFilePaths) {
+        this(structureFilePaths, 0, false, 0);
+    }
+
+    /**
+     * Creates a writer of structure files which writes a limited number of samples of every record type.
+     *
+     * @param structureFilePaths function which returns the path of the structure file of a record type
+     * @param sampleLimit        maximum number of samples of a record type, or zero to write every sample
+     * @param reservoirSampling  whether the samples are selected by reservoir sampling instead of taking the first ones
+     * @param samplingSeed       seed of reservoir sampling
+     */
+    SampleDataWriter(Function<String, Path> structureFilePaths, int sampleLimit, boolean reservoirSampling,
+                     long samplingSeed) {
+        this(structureFilePaths, sampleLimit, reservoirSampling, samplingSeed, false, false);
+    }
+
+    /**
+     * Creates a writer of structure files which may replace the existing structure files.
+     *
+     * @param structureFilePaths function which returns the path of the structure file of a record type
+     * @param sampleLimit        maximum number of samples of a record type, or zero to write every sample
+     * @param reservoirSampling  whether the samples are selected by reservoir sampling instead of taking the first ones
+     * @param samplingSeed       seed of reservoir sampling
+     * @param regeneration       whether existing structure files are written again
+     * @param merging            whether the samples of existing structure files are kept when they are written again
+     */
+    SampleDataWriter(Function<String, Path> structureFilePaths, int sampleLimit, boolean reservoirSampling,
+                     long samplingSeed, boolean regeneration, boolean merging) {
+        this.structureFilePaths = structureFilePaths;
+        this.sampleLimit = sampleLimit;
+        this.reservoirSampling = reservoirSampling && sampleLimit > 0;
+        this.samplingSeed = samplingSeed;
+        this.regeneration = regeneration || merging;
+        this.merging = merging;
+        this.structureFiles = new LinkedHashMap<>();
+        this.existingStructureFiles = new HashMap<>();
+    }
+
+    /**
+     * Whether samples of any of the given record types would be written.
+     *
+     * @param typeNames names of the record types
+     * @return true if the structure file of any of the record types is being written or does not exist yet
+     */
+    boolean acceptsAny(Collection<String> typeNames) {
+        for (String typeName : typeNames) {
+            if (structureFiles.containsKey(typeName) || !isSkipped(typeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a sample record to the structure file of its type.
+     *
+     * @param schema schema of the record
+     * @param values field values of the record in the order of the fields of the schema
+     */
+    void write(RecordSchema schema, String[] values) throws IOException {
+        String typeName = schema.getTypeName();
+        StructureFile structureFile = structureFiles.get(typeName);
+        if (structureFile == null) {
+            if (isSkipped(typeName)) {
+                return;
+            }
+            Path path = structureFilePaths.apply(typeName);
+            structureFile = reservoirSampling ? new SampledStructureFile(typeName, path, sampleLimit, merging,
+                    new Random(samplingSeed ^ typeName.hashCode())) :
+                    new StructureFile(typeName, path, sampleLimit, merging);
+            structureFiles.put(typeName, structureFile);
+        }
+        structureFile.write(schema, values);
+    }
+
+    /**
+     * Whether the samples of a record type are skipped, since its structure file already exists and is not
+     * regenerated. The file system is only checked once for every record type.
+     */
+    private boolean isSkipped(String typeName) {
+        return !regeneration && existingStructureFiles.computeIfAbsent(typeName,
+                key -> Files.exists(structureFilePaths.apply(key)));
+    }
+
+    /**
+     * Completes the structure files written so far and moves them in place, unless their content is unchanged.
+     */
+    void commit() throws IOException {
+        for (StructureFile structureFile : structureFiles.values()) {
+            structureFile.commit();
+        }
+        structureFiles.clear();
+    }
+
+    /**
+     * Deletes the temporary files of the structure files which have not been committed.
+     */
+    @Override
+    public void close() throws IOException {
+        for (StructureFile structureFile : structureFiles.values()) {
+            Files.deleteIfExists(structureFile.tempPath);
+        }
+        structureFiles.clear();
+    }
+
+    /**
+     * Structure file of a record type which is being written.
+     */
+    private static class StructureFile {
+        private final String typeName;
+        private final Path path;
+        private final Path tempPath;
+        private final ByteArrayOutputStream buffer;
+        private final JsonGenerator generator;
+        private final int sampleLimit;
+        private final boolean merging;
+        private int sampleCount;
+
+        StructureFile(String typeName, Path path, int sampleLimit, boolean merging) throws IOException {
+            this.typeName = typeName;
+            this.path = path;
+            this.tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+            this.buffer = new ByteArrayOutputStream();
+            this.generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8);
+            this.sampleLimit = sampleLimit;
+            this.merging = merging;
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(tempPath);
+            generator.writeStartObject();
+            generator.writeFieldName(typeName);
+            generator.writeStartArray();
+        }
+
+        void write(RecordSchema schema, String[] values) throws IOException {
+            if (sampleLimit > 0 && sampleCount == sampleLimit) {
+                return;
+            }
+            sampleCount++;
+            append(schema, values);
+        }
+
+        void append(RecordSchema schema, String[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(schema.getFieldName(i));
+                writeValue(schema, i, values[i]);
+            }
+            generator.writeEndObject();
+            if (buffer.size() + generator.getOutputBuffered() >= MAX_BUFFERED_BYTES) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the value of a field with the JSON type of the field, so that the structure file is valid sample data
+         * of the record type itself. Fields without a sampled value, such as nested records and arrays, are written
+         * with a placeholder value the field accepts.
+         */
+        private void writeValue(RecordSchema schema, int field, String value) throws IOException {
+            FieldKind kind = schema.getFieldKind(field);
+            if (value == null) {
+                if (schema.isOptional(field) || kind == FieldKind.RECORD || kind == FieldKind.ANY) {
+                    generator.writeNull();
+                } else if (kind == FieldKind.ARRAY) {
+                    generator.writeStartArray();
+                    generator.writeEndArray();
+                } else if (kind == FieldKind.BOOLEAN) {
+                    generator.writeBoolean(false);
+                } else if (kind == FieldKind.STRING) {
+                    generator.writeString(schema.getFieldType(field));
+                } else {
+                    generator.writeNumber(0);
+                }
+                return;
+            }
+            if (kind == FieldKind.INT || kind == FieldKind.NUMBER) {
+                generator.writeNumber(value);
+            } else if (kind == FieldKind.BOOLEAN) {
+                generator.writeBoolean(Boolean.parseBoolean(value));
+            } else {
+                generator.writeString(value);
+            }
+        }
+
+        void commit() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            flush();
+            generator.close();
+            if (merging && Files.isRegularFile(path) && !merge()) {
+                // nothing new, hence the existing file is kept as it is
+                Files.delete(tempPath);
+                return;
+            }
+            Utils.replaceIfChanged(tempPath, path);
+        }
+
+        /**
+         * Adds the samples of the existing structure file to the written ones, keeping the existing samples first and
+         * dropping the written samples which the existing file already has. A structure file which does not hold
+         * samples of the record type is replaced.
+         *
+         * @return false if the existing structure file already has all the written samples
+         */
+        private boolean merge() throws IOException {
+            JsonNode existingSamples;
+            try {
+                existingSamples = OBJECT_MAPPER.readTree(path.toFile()).path(typeName);
+            } catch (JsonProcessingException e) {
+                return true;
+            }
+            if (!existingSamples.isArray()) {
+                return true;
+            }
+            ArrayNode samples = OBJECT_MAPPER.createArrayNode();
+            Set<JsonNode> knownSamples = new HashSet<>();
+            for (JsonNode sample : existingSamples) {
+                samples.add(sample);
+                knownSamples.add(sample);
+            }
+            for (JsonNode sample : OBJECT_MAPPER.readTree(tempPath.toFile()).path(typeName)) {
+                if (sampleLimit > 0 && samples.size() >= sampleLimit) {
+                    break;
+                }
+                if (knownSamples.add(sample)) {
+                    samples.add(sample);
+                }
+            }
+            if (samples.size() == existingSamples.size()) {
+                return false;
+            }
+            ObjectNode content = OBJECT_MAPPER.createObjectNode();
+            content.set(typeName, samples);
+            OBJECT_MAPPER.writeValue(tempPath.toFile(), content);
+            return true;
+        }
+
+        private void flush() throws IOException {
+            generator.flush();
+            try (OutputStream outputStream = Files.newOutputStream(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                buffer.writeTo(outputStream);
+            }
+            buffer.reset();
+        }
+    }
+
+    /**
+     * Structure file of a record type whose samples are selected by reservoir sampling. The selected samples are kept
+     * in memory and written in the order they were found when the file is committed.
+     */
+    private static class SampledStructureFile extends StructureFile {
+        private final Random random;
+        private final long[] positions;
+        private final RecordSchema[] schemas;
+        private final String[][] records;
+        // number of samples offered to the file, of which at most the sample limit are kept
+        private long seenCount;
+
+        SampledStructureFile(String typeName, Path path, int sampleLimit, boolean merging, Random random)
+                throws IOException {
+            super(typeName, path, sampleLimit, merging);
+            this.random = random;
+            this.positions = new long[sampleLimit];
+            this.schemas = new RecordSchema[sampleLimit];
+            this.records = new String[sampleLimit][];
+        }
+
+        @Override
+        void write(RecordSchema schema, String[] values) {
+            int slot;
+            if (seenCount < positions.length) {
+                slot = (int) seenCount;
+            } else {
+                long index = random.nextLong(seenCount + 1);
+                if (index >= positions.length) {
+                    seenCount++;
+                    return;
+                }
+                slot = (int) index;
+            }
+            positions[slot] = seenCount++;
+            schemas[slot] = schema;
+            records[slot] = values;
+        }
+
+        @Override
+        void commit() throws IOException {
+            int selected = (int) Math.min(seenCount, positions.length);
+            Integer[] slots = new Integer[selected];
+            for (int i = 0; i < selected; i++) {
+                slots[i] = i;
+            }
+            Arrays.sort(slots, Comparator.comparingLong(slot -> positions[slot]));
+            for (Integer slot : slots) {
+                append(schemas[slot], records[slot]);
+            }
+            super.commit();
+        }
+    }
+}
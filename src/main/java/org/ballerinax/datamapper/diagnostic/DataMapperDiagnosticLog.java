@@ -37,6 +37,9 @@ public class DataMapperDiagnosticLog {
 
     private static final ResourceBundle MESSAGES = ResourceBundle.getBundle("datamapper", Locale.getDefault());
     private static final String ERROR_PREFIX = "error";
+    private static final String WARNING_PREFIX = "warning";
+    private static final String HINT_PREFIX = "hint";
+    private static final String OCCURRENCES_KEY = "repeated.problem";
 
     public List<Diagnostic> getDataMapperPluginDiagnostic() {
         return dataMapperPluginDiagnostic;
@@ -49,7 +52,7 @@ public class DataMapperDiagnosticLog {
     }
 
     public void addDiagnostics(Location position, DiagnosticErrorCode diagnosticErrorCode, Object... args) {
-        String msg = formatMessage(ERROR_PREFIX, diagnosticErrorCode, args);
+        String msg = formatMessage(getPrefix(diagnosticErrorCode), diagnosticErrorCode, args);
         DiagnosticInfo diagnosticInfo = new DiagnosticInfo(
                 diagnosticErrorCode.diagnosticId(), msg,
                 diagnosticErrorCode.severity());
@@ -57,6 +60,48 @@ public class DataMapperDiagnosticLog {
         dataMapperPluginDiagnostic.add(DiagnosticFactory.createDiagnostic(diagnosticInfo, position));
     }
 
+    /**
+     * Adds a diagnostic of a problem which was found the given number of times, at the location of its first
+     * occurrence.
+     */
+    public void addRepeatedDiagnostics(Location position, DiagnosticErrorCode diagnosticErrorCode, long occurrences,
+                                       Object... args) {
+        if (occurrences <= 1) {
+            addDiagnostics(position, diagnosticErrorCode, args);
+            return;
+        }
+        String msg = MessageFormat.format(MESSAGES.getString(OCCURRENCES_KEY),
+                formatMessage(getPrefix(diagnosticErrorCode), diagnosticErrorCode, args), String.valueOf(occurrences));
+        addFormattedDiagnostic(position, diagnosticErrorCode, msg);
+    }
+
+    public void addFormattedDiagnostic(Location position, DiagnosticErrorCode diagnosticErrorCode, String msg) {
+        DiagnosticInfo diagnosticInfo = new DiagnosticInfo(
+                diagnosticErrorCode.diagnosticId(), msg,
+                diagnosticErrorCode.severity());
+
+        dataMapperPluginDiagnostic.add(DiagnosticFactory.createDiagnostic(diagnosticInfo, position));
+    }
+
+    public void addAll(DataMapperDiagnosticLog diagnosticLog) {
+        dataMapperPluginDiagnostic.addAll(diagnosticLog.getDataMapperPluginDiagnostic());
+    }
+
+    public void add(Diagnostic diagnostic) {
+        dataMapperPluginDiagnostic.add(diagnostic);
+    }
+
+    private static String getPrefix(DiagnosticErrorCode diagnosticErrorCode) {
+        switch (diagnosticErrorCode.severity()) {
+            case HINT:
+                return HINT_PREFIX;
+            case WARNING:
+                return WARNING_PREFIX;
+            default:
+                return ERROR_PREFIX;
+        }
+    }
+
     private String formatMessage(String prefix, DiagnosticCode code, Object[] args) {
         String msgKey = MESSAGES.getString(prefix + "." + code.messageKey());
         return MessageFormat.format(msgKey, args);
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper.diagnostic;
+
+import io.ballerina.tools.diagnostics.Location;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collects the problems found in a sample data file. The occurrences of the same problem, which is the same error
+ * code with the same arguments, such as an unknown attribute of a record type, are counted and reported once at the
+ * location of the first occurrence. The number of occurrences of problems can be limited, so that the rest of a
+ * systematically wrong file is not validated, whether its problems differ or are the same in every record.
+ */
+public class DiagnosticAggregator {
+
+    private final int limit;
+    private final Map<String, Problem> problems;
+    private long occurrences;
+    private boolean limitReached;
+
+    /**
+     * @param limit maximum number of occurrences of problems, or zero to keep every problem
+     */
+    public DiagnosticAggregator(int limit) {
+        this.limit = limit;
+        this.problems = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds an occurrence of a problem. The location is only computed for the first occurrence.
+     *
+     * @param position location of the problem
+     * @param code     error code of the problem
+     * @param args     arguments of the message of the error code
+     * @return false if the occurrence exceeds the limit, in which case it is dropped
+     */
+    public boolean add(Supplier<Location> position, DiagnosticErrorCode code, Object... args) {
+        if (isFull()) {
+            limitReached = true;
+            return false;
+        }
+        occurrences++;
+        String key = getKey(code, args);
+        Problem problem = problems.get(key);
+        if (problem != null) {
+            problem.occurrences++;
+        } else {
+            problems.put(key, new Problem(position.get(), code, args, 1));
+        }
+        return true;
+    }
+
+    /**
+     * Merges the problems of another part of the same file. Parts have to be merged in the order of their content.
+     */
+    public void addAll(DiagnosticAggregator aggregator) {
+        for (Map.Entry<String, Problem> entry : aggregator.problems.entrySet()) {
+            if (isFull()) {
+                limitReached = true;
+                break;
+            }
+            Problem added = entry.getValue();
+            long addedOccurrences = limit > 0 ? Math.min(added.occurrences, limit - occurrences) : added.occurrences;
+            if (addedOccurrences < added.occurrences) {
+                limitReached = true;
+            }
+            occurrences += addedOccurrences;
+            Problem problem = problems.get(entry.getKey());
+            if (problem != null) {
+                problem.occurrences += addedOccurrences;
+            } else {
+                problems.put(entry.getKey(), new Problem(added.position, added.code, added.args, addedOccurrences));
+            }
+        }
+        limitReached |= aggregator.limitReached;
+    }
+
+    /**
+     * Whether an occurrence of a problem was dropped, after which the rest of the file is not validated.
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * Adds a diagnostic for every problem to a diagnostic log, in the order the problems were found, followed by a
+     * warning if problems were dropped.
+     *
+     * @param dataMapperLog log the diagnostics are added to
+     * @param filePosition  location of the file, which the warning is reported at
+     */
+    public void writeTo(DataMapperDiagnosticLog dataMapperLog, Location filePosition) {
+        for (Problem problem : problems.values()) {
+            dataMapperLog.addRepeatedDiagnostics(problem.position, problem.code, problem.occurrences, problem.args);
+        }
+        if (limitReached) {
+            dataMapperLog.addDiagnostics(filePosition, DiagnosticErrorCode.WARNING_FILE_DIAGNOSTICS_LIMITED, limit);
+        }
+    }
+
+    private boolean isFull() {
+        return limit > 0 && occurrences >= limit;
+    }
+
+    private static String getKey(DiagnosticErrorCode code, Object[] args) {
+        StringBuilder key = new StringBuilder(code.diagnosticId());
+        for (Object arg : args) {
+            key.append('\u0000').append(arg);
+        }
+        return key.toString();
+    }
+
+    private static class Problem {
+        private final Location position;
+        private final DiagnosticErrorCode code;
+        private final Object[] args;
+        private long occurrences;
+
+        private Problem(Location position, DiagnosticErrorCode code, Object[] args, long occurrences) {
+            this.position = position;
+            this.code = code;
+            this.args = args;
+            this.occurrences = occurrences;
+        }
+    }
+}
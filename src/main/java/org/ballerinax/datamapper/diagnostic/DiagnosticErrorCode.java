@@ -28,19 +28,30 @@ public enum DiagnosticErrorCode implements DiagnosticCode {
     ERROR_INVALID_ATTRIBUTE_NAME("DME0001", "invalid.attribute.name"),
     ERROR_INVALID_ATTRIBUTE_COUNT("DME0002", "invalid.attribute.count"),
     ERROR_INVALID_JSON_CONTENT("DME0003", "invalid.json.content"),
-    ERROR_INVALID_JSON_TOKEN("DME0004", "invalid.json.token");
+    ERROR_INVALID_JSON_TOKEN("DME0004", "invalid.json.token"),
+    ERROR_INVALID_ATTRIBUTE_TYPE("DME0005", "invalid.attribute.type"),
+    WARNING_FILE_DIAGNOSTICS_LIMITED("DMW0001", "file.diagnostics.limited", DiagnosticSeverity.WARNING),
+    WARNING_BUILD_DIAGNOSTICS_LIMITED("DMW0002", "build.diagnostics.limited", DiagnosticSeverity.WARNING),
+    WARNING_QUOTED_ATTRIBUTE_VALUE("DMW0003", "quoted.attribute.value", DiagnosticSeverity.WARNING),
+    HINT_ANALYSIS_METRICS("DMH0001", "analysis.metrics", DiagnosticSeverity.HINT);
 
     private String diagnosticId;
     private String messageKey;
+    private DiagnosticSeverity severity;
 
     DiagnosticErrorCode(String diagnosticId, String messageKey) {
+        this(diagnosticId, messageKey, DiagnosticSeverity.ERROR);
+    }
+
+    DiagnosticErrorCode(String diagnosticId, String messageKey, DiagnosticSeverity severity) {
         this.diagnosticId = diagnosticId;
         this.messageKey = messageKey;
+        this.severity = severity;
     }
 
     @Override
     public DiagnosticSeverity severity() {
-        return DiagnosticSeverity.ERROR;
+        return this.severity;
     }
 
     @Override
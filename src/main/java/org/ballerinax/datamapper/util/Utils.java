@@ -18,29 +18,74 @@
 
 package org.ballerinax.datamapper.util;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 
 /**
  * Utilities class.
  */
 public class Utils {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Writes the given content to a file, unless the file already has the same content. The content is written to a
+     * temporary file which then replaces the file, so that the file is never seen partially written.
+     */
     public static void writeToFile(String content, Path targetFilePath) throws IOException {
-        File newFile = targetFilePath.toFile();
+        writeToFile(content.getBytes(StandardCharsets.UTF_8), targetFilePath);
+    }
 
-        if (newFile.exists()) {
-            Files.write(targetFilePath, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Writes the given bytes to a file, unless the file already has the same content. The bytes are written to a
+     * temporary file which then replaces the file, so that the file is never seen partially written.
+     */
+    public static void writeToFile(byte[] bytes, Path targetFilePath) throws IOException {
+        if (Files.isRegularFile(targetFilePath) && Files.size(targetFilePath) == bytes.length &&
+                Arrays.equals(Files.readAllBytes(targetFilePath), bytes)) {
             return;
         }
+        Files.createDirectories(targetFilePath.getParent());
+        Path tempFilePath = Files.createTempFile(targetFilePath.getParent(), targetFilePath.getFileName().toString(),
+                TEMP_FILE_SUFFIX);
+        try {
+            Files.write(tempFilePath, bytes);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFilePath);
+            throw e;
+        }
+        replaceIfChanged(tempFilePath, targetFilePath);
+    }
 
-        if (newFile.getParentFile().mkdirs()) {
-            Files.write(targetFilePath, content.getBytes(StandardCharsets.UTF_8));
-            return;
+    /**
+     * Replaces a file with a temporary file, unless the file already has the same content, in which case the
+     * temporary file is deleted and the file keeps its modification time.
+     *
+     * @param tempFilePath   completely written temporary file, in the directory of the target file
+     * @param targetFilePath file to be replaced
+     * @return true if the file was replaced
+     */
+    public static boolean replaceIfChanged(Path tempFilePath, Path targetFilePath) throws IOException {
+        try {
+            if (Files.isRegularFile(targetFilePath) && Files.mismatch(tempFilePath, targetFilePath) == -1) {
+                Files.delete(tempFilePath);
+                return false;
+            }
+            try {
+                Files.move(tempFilePath, targetFilePath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFilePath, targetFilePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFilePath);
+            throw e;
         }
-        Files.write(targetFilePath, content.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.text.LineRange;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test cases for the analysis cache.
+ */
+public class AnalysisCacheTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+
+    private Path directory;
+    private Path dataFile;
+    private Path cacheFile;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("datamapper");
+        dataFile = directory.resolve("Issue_data.json");
+        cacheFile = directory.resolve("target").resolve(AnalysisCache.CACHE_FILE_NAME);
+        Files.writeString(dataFile, "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"user\", \"url2\": \"url\"}, \"id\": \"1\"},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": \"url\"}, \"id2\": \"2\"}\n" +
+                "]}");
+    }
+
+    @Test
+    public void testCachedResultMatchesReadResult() throws IOException {
+        Map<String, RecordSchema> recordSchemas = compile("string?");
+        SampleDataResult result = read(recordSchemas);
+        Assert.assertFalse(result.getDataMapperLog().getDataMapperPluginDiagnostic().isEmpty());
+
+        String contentDigest = AnalysisCache.getFileDigest(dataFile);
+        AnalysisCache analysisCache = AnalysisCache.load(cacheFile, 0, 0);
+        Assert.assertNull(analysisCache.getResult(dataFile.toString(), contentDigest, recordSchemas));
+        analysisCache.putResult(getEntry(), contentDigest, result, recordSchemas);
+        analysisCache.save();
+
+        SampleDataResult cachedResult = AnalysisCache.load(cacheFile, 0, 0).getResult(dataFile.toString(),
+                contentDigest, recordSchemas);
+        Assert.assertNotNull(cachedResult);
+        Assert.assertEquals(describe(cachedResult.getDataMapperLog().getDataMapperPluginDiagnostic()),
+                describe(result.getDataMapperLog().getDataMapperPluginDiagnostic()));
+        Assert.assertEquals(cachedResult.getSampleTypeNames(), result.getSampleTypeNames());
+        Assert.assertEquals(cachedResult.getTypeNames(), result.getTypeNames());
+    }
+
+    @Test
+    public void testChangedInputsAreNotCached() throws IOException {
+        Map<String, RecordSchema> recordSchemas = compile("string?");
+        String contentDigest = AnalysisCache.getFileDigest(dataFile);
+        AnalysisCache analysisCache = AnalysisCache.load(cacheFile, 0, 0);
+        analysisCache.putResult(getEntry(), contentDigest, read(recordSchemas), recordSchemas);
+        analysisCache.save();
+
+        // a record type nested in the type of the file has changed
+        Assert.assertNull(AnalysisCache.load(cacheFile, 0, 0).getResult(dataFile.toString(), contentDigest,
+                compile("string")));
+
+        Files.writeString(dataFile, "{\"" + ISSUE + "\": []}");
+        String changedDigest = AnalysisCache.getFileDigest(dataFile);
+        Assert.assertNotEquals(changedDigest, contentDigest);
+        Assert.assertNull(AnalysisCache.load(cacheFile, 0, 0).getResult(dataFile.toString(), changedDigest,
+                recordSchemas));
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotHashedAgain() throws IOException {
+        Map<String, RecordSchema> recordSchemas = compile("string?");
+        String contentDigest = AnalysisCache.getFileDigest(dataFile);
+        AnalysisCache analysisCache = AnalysisCache.load(cacheFile, 0, 0);
+        Assert.assertEquals(analysisCache.getContentDigest(getEntry()), contentDigest);
+        analysisCache.putResult(getEntry(), contentDigest, read(recordSchemas), recordSchemas);
+        analysisCache.save();
+
+        // a file of the same size and modification time is taken to be unchanged, as by the resource index
+        FileTime lastModified = Files.getLastModifiedTime(dataFile);
+        Files.writeString(dataFile, Files.readString(dataFile).replace("user", "resu"));
+        Files.setLastModifiedTime(dataFile, lastModified);
+        Assert.assertEquals(AnalysisCache.load(cacheFile, 0, 0).getContentDigest(getEntry()), contentDigest);
+
+        Files.setLastModifiedTime(dataFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        String changedDigest = AnalysisCache.load(cacheFile, 0, 0).getContentDigest(getEntry());
+        Assert.assertNotEquals(changedDigest, contentDigest);
+        Assert.assertEquals(changedDigest, AnalysisCache.getFileDigest(dataFile));
+    }
+
+    @Test
+    public void testResultsOfOtherDiagnosticLimitsAreNotCached() throws IOException {
+        Map<String, RecordSchema> recordSchemas = compile("string?");
+        String contentDigest = AnalysisCache.getFileDigest(dataFile);
+        AnalysisCache analysisCache = AnalysisCache.load(cacheFile, 1, 0);
+        analysisCache.putResult(getEntry(), contentDigest, read(recordSchemas), recordSchemas);
+        analysisCache.save();
+
+        Assert.assertNotNull(AnalysisCache.load(cacheFile, 1, 0).getResult(dataFile.toString(), contentDigest,
+                recordSchemas));
+        // the problems cut off at the limit of the file are found once the limit is raised
+        Assert.assertNull(AnalysisCache.load(cacheFile, 0, 0).getResult(dataFile.toString(), contentDigest,
+                recordSchemas));
+        Assert.assertNull(AnalysisCache.load(cacheFile, 1, 10).getResult(dataFile.toString(), contentDigest,
+                recordSchemas));
+    }
+
+    @Test
+    public void testUnusedEntriesAreNotSaved() throws IOException {
+        Map<String, RecordSchema> recordSchemas = compile("string?");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(CREATOR, new LinkedHashMap<>());
+        String contentDigest = AnalysisCache.getFileDigest(dataFile);
+        AnalysisCache analysisCache = AnalysisCache.load(cacheFile, 0, 0);
+        analysisCache.putRecordTypes("digest", recordTypes);
+        analysisCache.putResult(getEntry(), contentDigest, read(recordSchemas), recordSchemas);
+        analysisCache.save();
+
+        AnalysisCache nextCache = AnalysisCache.load(cacheFile, 0, 0);
+        Assert.assertNull(nextCache.getRecordTypes("changed digest"));
+        Assert.assertEquals(nextCache.getRecordTypes("digest"), recordTypes);
+        nextCache.save();
+
+        Assert.assertNull(AnalysisCache.load(cacheFile, 0, 0).getResult(dataFile.toString(), contentDigest,
+                recordSchemas));
+    }
+
+    @Test
+    public void testCorruptCacheIsIgnored() throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        Files.writeString(cacheFile, "{\"version\": ");
+        Assert.assertNull(AnalysisCache.load(cacheFile, 0, 0).getRecordTypes("digest"));
+    }
+
+    @Test
+    public void testSchemaDigestCoversRecursiveTypes() {
+        // an issue has a creator whose latest issue is an issue again
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("author", CREATOR);
+        issue.put("id", "string");
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        creator.put("latest", ISSUE + "?");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        Map<String, RecordSchema> recordSchemas = RecordSchema.compile(recordTypes);
+
+        RecordSchema issueSchema = recordSchemas.get(ISSUE);
+        Assert.assertEquals(issueSchema.getClosure(), List.of(issueSchema, recordSchemas.get(CREATOR)));
+        Assert.assertSame(issueSchema.getClosure(), issueSchema.getClosure());
+        Assert.assertSame(issueSchema.getNestedSchema(0).getNestedSchema(1), issueSchema);
+
+        // the digest of a single type is memoized, and is the same as the one of the whole closure
+        String digest = AnalysisCache.getSchemaDigest(List.of(ISSUE), recordSchemas);
+        Assert.assertSame(AnalysisCache.getSchemaDigest(List.of(ISSUE), recordSchemas), digest);
+        Assert.assertEquals(AnalysisCache.getSchemaDigest(List.of(ISSUE, CREATOR), recordSchemas), digest);
+        Assert.assertNotEquals(AnalysisCache.getSchemaDigest(List.of(ISSUE, "unknown"), recordSchemas), digest);
+    }
+
+    private static Map<String, RecordSchema> compile(String urlType) {
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("author", CREATOR);
+        issue.put("id", "string");
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        creator.put("url", urlType);
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        return RecordSchema.compile(recordTypes);
+    }
+
+    private ResourceIndex.Entry getEntry() throws IOException {
+        List<ResourceIndex.Entry> files = ResourceIndex.load(null).list(directory);
+        Assert.assertEquals(files.size(), 1);
+        return files.get(0);
+    }
+
+    private SampleDataResult read(Map<String, RecordSchema> recordSchemas) throws IOException {
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        SampleDataResult result = new SampleDataResult();
+        result.add(reader);
+        reader.getSampleData().close();
+        return result;
+    }
+
+    private static List<String> describe(List<Diagnostic> diagnostics) {
+        List<String> descriptions = new ArrayList<>();
+        for (Diagnostic diagnostic : diagnostics) {
+            LineRange lineRange = diagnostic.location().lineRange();
+            descriptions.add(diagnostic.diagnosticInfo().code() + " " + diagnostic.message() + " " +
+                    lineRange.fileName() + ":" + lineRange.startLine().line() + ":" +
+                    lineRange.startLine().offset() + "-" + lineRange.endLine().line() + ":" +
+                    lineRange.endLine().offset());
+        }
+        return descriptions;
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+}
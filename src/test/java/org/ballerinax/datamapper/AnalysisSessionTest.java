@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Test cases for reusing the validation results of the sample data files between the compilations of a session.
+ */
+public class AnalysisSessionTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+
+    private Path directory;
+    private Path dataFile;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("datamapper-session");
+        dataFile = directory.resolve("Issue_data.json");
+        Files.writeString(dataFile, "{\"" + ISSUE + "\": [{\"id2\": \"1\"}]}");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testUnchangedFileIsReused() throws IOException {
+        Map<String, RecordSchema> recordSchemas = RecordSchema.compile(getRecordTypes("string"));
+        AnalysisSession session = AnalysisSession.get(directory.toString());
+        SampleDataResult result = read(recordSchemas);
+        session.putResult(dataFile.toString(), result, recordSchemas, 100);
+
+        Assert.assertSame(session.getResult(dataFile.toString(), recordSchemas, 100), result);
+        Assert.assertSame(AnalysisSession.get(directory.toString()), session);
+        Assert.assertFalse(result.getDataMapperLog().getDataMapperPluginDiagnostic().isEmpty());
+    }
+
+    @Test
+    public void testChangedFileIsNotReused() throws IOException {
+        Map<String, RecordSchema> recordSchemas = RecordSchema.compile(getRecordTypes("string"));
+        AnalysisSession session = AnalysisSession.get(directory.toString());
+        session.putResult(dataFile.toString(), read(recordSchemas), recordSchemas, 100);
+
+        Files.writeString(dataFile, "{\"" + ISSUE + "\": [{\"id\": \"12\"}]}");
+        Files.setLastModifiedTime(dataFile, FileTime.fromMillis(Files.getLastModifiedTime(dataFile).toMillis() +
+                1000));
+        Assert.assertNull(session.getResult(dataFile.toString(), recordSchemas, 100));
+    }
+
+    @Test
+    public void testFileOfChangedRecordTypeIsNotReused() throws IOException {
+        Map<String, RecordSchema> recordSchemas = RecordSchema.compile(getRecordTypes("string"));
+        AnalysisSession session = AnalysisSession.get(directory.toString());
+        session.putResult(dataFile.toString(), read(recordSchemas), recordSchemas, 100);
+
+        Assert.assertNull(session.getResult(dataFile.toString(), RecordSchema.compile(getRecordTypes("int")), 100));
+        Assert.assertNull(session.getResult(dataFile.toString(), recordSchemas, 1));
+        session.retainFiles(Collections.emptyList());
+        Assert.assertNull(session.getResult(dataFile.toString(), recordSchemas, 100));
+    }
+
+    @Test
+    public void testRecordSchemasAreCompiledOnChange() {
+        AnalysisSession session = AnalysisSession.get(directory.toString());
+        Map<String, RecordSchema> recordSchemas = session.getRecordSchemas(getRecordTypes("string"));
+
+        Assert.assertSame(session.getRecordSchemas(getRecordTypes("string")), recordSchemas);
+        Assert.assertNotSame(session.getRecordSchemas(getRecordTypes("int")), recordSchemas);
+    }
+
+    private SampleDataResult read(Map<String, RecordSchema> recordSchemas) throws IOException {
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        reader.getSampleData().close();
+        SampleDataResult result = new SampleDataResult(100);
+        result.add(reader);
+        return result;
+    }
+
+    private static Map<String, Map<String, String>> getRecordTypes(String idType) {
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("id", idType);
+        issue.put("author", CREATOR);
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        return recordTypes;
+    }
+}
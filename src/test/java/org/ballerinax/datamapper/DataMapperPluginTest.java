@@ -18,11 +18,20 @@
 
 package org.ballerinax.datamapper;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ballerina.projects.CodeGeneratorResult;
+import io.ballerina.projects.Document;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.Package;
+import io.ballerina.projects.directory.BuildProject;
 import io.ballerina.tools.diagnostics.Diagnostic;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
 import org.ballerinalang.test.BAssertUtil;
 import org.ballerinalang.test.BCompileUtil;
 import org.ballerinalang.test.CompileResult;
+import org.ballerinax.datamapper.diagnostic.DiagnosticErrorCode;
 import org.testng.Assert;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
@@ -33,6 +42,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Test cases for data mapper compiler plugin.
@@ -266,6 +279,229 @@ public class DataMapperPluginTest {
         Assert.assertEquals(result.getErrorCount(), 0);
     }
 
+    @Test
+    public void testErrorNegativeMultipleDataFilesDiagnosticOrder() {
+        CompileResult result = BCompileUtil.compile("test19/modules/module_test19");
+        Assert.assertEquals(result.getErrorCount(), 3);
+
+        int i = 0;
+        int j = 0;
+        Diagnostic[] diagnostics = result.getDiagnostics();
+        int[] diagnosticIndex = new int[result.getErrorCount()];
+
+        for (Diagnostic diag : diagnostics) {
+            if (diag.diagnosticInfo().severity() == DiagnosticSeverity.ERROR) {
+                diagnosticIndex[j] = i;
+                j++;
+            }
+            i++;
+        }
+        j = 0;
+        BAssertUtil.validateError(result, diagnosticIndex[j++],
+                "type ballerinax/test19.module_test19:0.1.0:Assignee does not have an attribute " +
+                        "named login2", 5, 13);
+        BAssertUtil.validateError(result, diagnosticIndex[j++],
+                "type ballerinax/test19.module_test19:0.1.0:Creator does not have an attribute " +
+                        "named avatarUrl3", 7, 13);
+        BAssertUtil.validateError(result, diagnosticIndex[j],
+                "type ballerinax/test19.module_test19:0.1.0:Issue does not have an attribute " +
+                        "named id2", 4, 13);
+    }
+
+    @Test
+    public void testDiagnosticLimitOfBuild() {
+        String diagnosticLimitProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.DIAGNOSTIC_LIMIT;
+        CompileResult result;
+        System.setProperty(diagnosticLimitProperty, "2");
+        try {
+            result = BCompileUtil.compile("test19/modules/module_test19");
+        } finally {
+            System.clearProperty(diagnosticLimitProperty);
+        }
+        Assert.assertEquals(result.getErrorCount(), 2);
+        Assert.assertEquals(result.getWarnCount(), 1);
+        List<String> warnings = Stream.of(result.getDiagnostics())
+                .filter(diagnostic -> diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.WARNING)
+                .map(Diagnostic::message).collect(Collectors.toList());
+        Assert.assertEquals(warnings, List.of("'1' more problems of the sample data files are not reported, at most " +
+                "'2' are reported by a build"));
+    }
+
+    @Test
+    public void testCachedResultsOfUnchangedPackage() {
+        CompileResult result = BCompileUtil.compile("test19/modules/module_test19");
+        CompileResult cachedResult = BCompileUtil.compile("test19/modules/module_test19");
+        Assert.assertEquals(cachedResult.getErrorCount(), result.getErrorCount());
+
+        Diagnostic[] diagnostics = result.getDiagnostics();
+        Diagnostic[] cachedDiagnostics = cachedResult.getDiagnostics();
+        Assert.assertEquals(cachedDiagnostics.length, diagnostics.length);
+        for (int i = 0; i < diagnostics.length; i++) {
+            Assert.assertEquals(cachedDiagnostics[i].message(), diagnostics[i].message());
+            Assert.assertEquals(cachedDiagnostics[i].location().lineRange().toString(),
+                    diagnostics[i].location().lineRange().toString());
+        }
+    }
+
+    @Test
+    public void testReferencedTypesOnly() {
+        String analysisCacheProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.ANALYSIS_CACHE;
+        String referencedTypesOnlyProperty = DataMapperConfig.PROPERTY_PREFIX +
+                DataMapperConfig.REFERENCED_TYPES_ONLY;
+        CompileResult result;
+        CompileResult referencedTypesResult;
+        System.setProperty(analysisCacheProperty, "false");
+        try {
+            result = BCompileUtil.compile("test19/modules/module_test19");
+            System.setProperty(referencedTypesOnlyProperty, "true");
+            referencedTypesResult = BCompileUtil.compile("test19/modules/module_test19");
+        } finally {
+            System.clearProperty(analysisCacheProperty);
+            System.clearProperty(referencedTypesOnlyProperty);
+        }
+
+        Diagnostic[] diagnostics = result.getDiagnostics();
+        Diagnostic[] referencedTypesDiagnostics = referencedTypesResult.getDiagnostics();
+        Assert.assertEquals(referencedTypesDiagnostics.length, diagnostics.length);
+        for (int i = 0; i < diagnostics.length; i++) {
+            Assert.assertEquals(referencedTypesDiagnostics[i].message(), diagnostics[i].message());
+            Assert.assertEquals(referencedTypesDiagnostics[i].location().lineRange().toString(),
+                    diagnostics[i].location().lineRange().toString());
+        }
+    }
+
+    @Test
+    public void testReferencedTypesOnlyWithHeaderlessJsonLines() {
+        String analysisCacheProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.ANALYSIS_CACHE;
+        String referencedTypesOnlyProperty = DataMapperConfig.PROPERTY_PREFIX +
+                DataMapperConfig.REFERENCED_TYPES_ONLY;
+        CompileResult result;
+        System.setProperty(analysisCacheProperty, "false");
+        System.setProperty(referencedTypesOnlyProperty, "true");
+        try {
+            result = BCompileUtil.compile("test21/modules/module_test21");
+        } finally {
+            System.clearProperty(analysisCacheProperty);
+            System.clearProperty(referencedTypesOnlyProperty);
+        }
+
+        // the record type of the file is only given by the file name, Issue_data.jsonl
+        Assert.assertEquals(result.getErrorCount(), 1);
+        BAssertUtil.validateError(result, 0,
+                "type ballerinax/test21.module_test21:0.1.0:Issue does not have an attribute named id2", 2, 2);
+    }
+
+    @Test
+    public void testStructureFilesAreValidatedByTheNextBuild() throws IOException {
+        String resources = "src/test/resources/test22/modules/module_test22/resources/";
+        CompileResult result = BCompileUtil.compile("test22/modules/module_test22");
+        Assert.assertEquals(result.getErrorCount(), 0);
+
+        // the values of the nested records keep the JSON types of their fields
+        JsonNode creators = new ObjectMapper().readTree(new File(resources + "Creator_data.json"))
+                .path("ballerinax/test22.module_test22:0.1.0:Creator");
+        Assert.assertEquals(creators.size(), 2);
+        Assert.assertTrue(creators.get(0).path("followers").isInt());
+        Assert.assertTrue(creators.get(0).path("admin").isBoolean());
+        Assert.assertTrue(creators.get(1).path("score").isNull());
+        Assert.assertTrue(new File(resources + "Label_data.json").exists());
+
+        // the structure files written by the first build are sample data files of the second one
+        result = BCompileUtil.compile("test22/modules/module_test22");
+        Assert.assertEquals(result.getErrorCount(), 0);
+    }
+
+    @Test
+    public void testMetricsReport() throws IOException {
+        String metricsSummaryProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.METRICS_SUMMARY;
+        String metricsReportProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.METRICS_REPORT;
+        String analysisCacheProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.ANALYSIS_CACHE;
+        CompileResult result;
+        System.setProperty(metricsSummaryProperty, "true");
+        System.setProperty(metricsReportProperty, "true");
+        System.setProperty(analysisCacheProperty, "false");
+        try {
+            result = BCompileUtil.compile("test19/modules/module_test19");
+        } finally {
+            System.clearProperty(metricsSummaryProperty);
+            System.clearProperty(metricsReportProperty);
+            System.clearProperty(analysisCacheProperty);
+        }
+        Assert.assertEquals(result.getErrorCount(), 3);
+
+        List<Diagnostic> hints = new ArrayList<>();
+        for (Diagnostic diagnostic : result.getDiagnostics()) {
+            if (diagnostic.diagnosticInfo().code().equals(DiagnosticErrorCode.HINT_ANALYSIS_METRICS.diagnosticId())) {
+                hints.add(diagnostic);
+            }
+        }
+        Assert.assertEquals(hints.size(), 1);
+        Assert.assertEquals(hints.get(0).diagnosticInfo().severity(), DiagnosticSeverity.HINT);
+        String summary = hints.get(0).message();
+        Assert.assertTrue(summary.startsWith("data mapper analysis took "), summary);
+        Assert.assertTrue(summary.contains(" for 3 data files of " +
+                getSize("src/test/resources/test19/modules/module_test19/resources") + " bytes with "), summary);
+        Assert.assertTrue(summary.endsWith(" and 3 diagnostics"), summary);
+
+        JsonNode report = new ObjectMapper().readTree(
+                Paths.get("src/test/resources/test19/target", AnalysisMetrics.REPORT_FILE_NAME).toFile());
+        Assert.assertEquals(report.path("package").asText(), "test19");
+        JsonNode module = report.path("modules").path("test19.module_test19");
+        Assert.assertEquals(module.path("files").asInt(), 3);
+        Assert.assertEquals(module.path("cachedFiles").asInt(), 0);
+        Assert.assertTrue(module.path("records").asInt() >= 200);
+        Assert.assertEquals(module.path("diagnostics").asInt(), 3);
+        for (String phase : new String[]{"clientDetection", "schemaExtraction", "fixtureDiscovery",
+                "parsingAndValidation", "structureFileGeneration"}) {
+            Assert.assertTrue(report.path("phaseMillis").has(phase), phase);
+        }
+    }
+
+    @Test
+    public void testMappingFunctionsAreGenerated() {
+        String mappingFunctionsProperty = DataMapperConfig.PROPERTY_PREFIX + DataMapperConfig.MAPPING_FUNCTIONS;
+        Package updatedPackage;
+        System.setProperty(mappingFunctionsProperty, "true");
+        try {
+            Package currentPackage = BuildProject.load(Paths.get("src/test/resources/test20").toAbsolutePath())
+                    .currentPackage();
+            CodeGeneratorResult codeGeneratorResult = currentPackage.runCodeGeneratorPlugins();
+            Assert.assertTrue(codeGeneratorResult.updatedPackage().isPresent());
+            updatedPackage = codeGeneratorResult.updatedPackage().get();
+            // the module uses the generated functions, hence does not compile without them
+            Assert.assertEquals(updatedPackage.getCompilation().diagnosticResult().errorCount(), 0);
+        } finally {
+            System.clearProperty(mappingFunctionsProperty);
+        }
+
+        List<String> generatedSources = new ArrayList<>();
+        for (Module module : updatedPackage.modules()) {
+            for (DocumentId documentId : module.documentIds()) {
+                Document document = module.document(documentId);
+                if (document.name().startsWith(MappingFunctionGenerator.FILE_NAME_PREFIX)) {
+                    generatedSources.add(document.syntaxTree().toSourceCode());
+                }
+            }
+        }
+        Assert.assertEquals(generatedSources.size(), 1);
+        String source = generatedSources.get(0);
+        Assert.assertTrue(source.contains("public isolated function fromJsonIssue(json value) returns Issue|error {"),
+                source);
+        Assert.assertTrue(source.contains("public isolated function toJsonLabelArray(Label[] values) returns json[] {"),
+                source);
+        Assert.assertTrue(source.contains("result.author = check fromJsonCreator(fields[\"author\"]);"), source);
+    }
+
+    private static long getSize(String directory) throws IOException {
+        long size = 0;
+        try (Stream<Path> files = Files.list(Paths.get(directory))) {
+            for (Path file : files.collect(Collectors.toList())) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+
     public static boolean deleteDirectory(Path directoryPath) {
         File directory = new File(String.valueOf(directoryPath));
         if (directory.isDirectory()) {
@@ -352,6 +588,25 @@ public class DataMapperPluginTest {
             path = "src/test/resources/test18/target/";
             deleteDirectory(Path.of(path));
 
+            path = "src/test/resources/test19/target/";
+            deleteDirectory(Path.of(path));
+
+            path = "src/test/resources/test20/target/";
+            deleteDirectory(Path.of(path));
+
+            path = "src/test/resources/test21/modules/module_test21/resources/";
+            Files.deleteIfExists(Paths.get(path + "Creator_data.json"));
+
+            path = "src/test/resources/test21/target/";
+            deleteDirectory(Path.of(path));
+
+            path = "src/test/resources/test22/modules/module_test22/resources/";
+            Files.deleteIfExists(Paths.get(path + "Creator_data.json"));
+            Files.deleteIfExists(Paths.get(path + "Label_data.json"));
+
+            path = "src/test/resources/test22/target/";
+            deleteDirectory(Path.of(path));
+
         } catch (IOException e) {
             Reporter.log("Error : " + e.getMessage(), true);
             throw e;
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.projects.Package;
+import io.ballerina.projects.directory.BuildProject;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scale tests of the analysis, which run it on generated packages and sample data files of growing size. Doubling the
+ * size of the input must not much more than double the wall time and the allocated memory, so that quadratic
+ * behaviour fails a test rather than a build with a large package.
+ */
+public class DataMapperScaleTest {
+    private static final String MODULE_NAME = SyntheticPackage.getModuleName(0);
+    private static final int FIELD_COUNT = 8;
+    private static final int NESTING_DEPTH = 3;
+    private static final int WARM_UP_RUNS = 3;
+    private static final int RUNS = 10;
+    // bytes allocated while reading a byte of sample data
+    private static final double ALLOCATION_BUDGET = 8;
+    private static final double MAX_TIME_RATIO = 3;
+    private static final double MAX_ALLOCATION_RATIO = 2.5;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<Path> dataFiles = new ArrayList<>();
+    private final List<Path> packageDirectories = new ArrayList<>();
+
+    @Test
+    public void testReaderAllocationBudget() throws IOException {
+        Path dataFile = createDataFile(20000);
+        Measurement measurement = measureReader(dataFile);
+        double allocatedBytesPerByte = (double) measurement.allocatedBytes / Files.size(dataFile);
+        Assert.assertTrue(allocatedBytesPerByte <= ALLOCATION_BUDGET, "allocated " + allocatedBytesPerByte +
+                " bytes per byte of sample data, the budget is " + ALLOCATION_BUDGET);
+    }
+
+    @Test
+    public void testReaderScalesWithRecordCount() throws IOException {
+        Measurement measurement = measureReader(createDataFile(20000));
+        Measurement doubledMeasurement = measureReader(createDataFile(40000));
+        assertScalesLinearly(measurement, doubledMeasurement);
+    }
+
+    @Test
+    public void testAnalysisScalesWithRecordCount() throws IOException {
+        Measurement measurement = measureAnalysis(new SyntheticPackage(2, 4, FIELD_COUNT, NESTING_DEPTH, 2000));
+        Measurement doubledMeasurement = measureAnalysis(new SyntheticPackage(2, 4, FIELD_COUNT, NESTING_DEPTH,
+                4000));
+        assertScalesLinearly(measurement, doubledMeasurement);
+    }
+
+    @Test
+    public void testAnalysisScalesWithModuleCount() throws IOException {
+        Measurement measurement = measureAnalysis(new SyntheticPackage(4, 4, FIELD_COUNT, NESTING_DEPTH, 1000));
+        Measurement doubledMeasurement = measureAnalysis(new SyntheticPackage(8, 4, FIELD_COUNT, NESTING_DEPTH,
+                1000));
+        assertScalesLinearly(measurement, doubledMeasurement);
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        for (Path dataFile : dataFiles) {
+            Files.deleteIfExists(dataFile);
+        }
+        for (Path packageDirectory : packageDirectories) {
+            SyntheticPackage.delete(packageDirectory);
+        }
+    }
+
+    private Path createDataFile(int recordCount) throws IOException {
+        Path dataFile = Files.createTempFile(SyntheticPackage.getRecordName(0), "_data.json");
+        dataFiles.add(dataFile);
+        new SyntheticPackage(1, 1, FIELD_COUNT, NESTING_DEPTH, recordCount).writeSampleData(dataFile, MODULE_NAME, 0);
+        return dataFile;
+    }
+
+    private Measurement measureReader(Path dataFile) throws IOException {
+        Map<String, RecordSchema> recordSchemas = RecordSchema.compile(
+                new SyntheticPackage(1, 1, FIELD_COUNT, NESTING_DEPTH, 0).getRecordTypes(MODULE_NAME));
+        return measure(() -> {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+            reader.read();
+            reader.getSampleData().close();
+            Assert.assertEquals(reader.getDataMapperLog().getDataMapperPluginDiagnostic().size(), 0);
+        });
+    }
+
+    /**
+     * Measures the analysis of a generated package, validating the sample data files on the calling thread and
+     * without the analysis cache or the analysis session so that every run does the same work.
+     */
+    private Measurement measureAnalysis(SyntheticPackage syntheticPackage) throws IOException {
+        Path packageDirectory = syntheticPackage.create();
+        packageDirectories.add(packageDirectory);
+        Package currentPackage = BuildProject.load(packageDirectory).currentPackage();
+        TestAnalysisContext analysisContext = new TestAnalysisContext(currentPackage,
+                currentPackage.getCompilation());
+        Map<String, String> properties = Map.of(DataMapperConfig.PARALLEL_VALIDATION, "false",
+                DataMapperConfig.CHUNKED_VALIDATION, "false", DataMapperConfig.ANALYSIS_CACHE, "false",
+                DataMapperConfig.SESSION_STATE, "false");
+        properties.forEach((key, value) -> System.setProperty(DataMapperConfig.PROPERTY_PREFIX + key, value));
+        try {
+            return measure(() -> {
+                analysisContext.resetDiagnosticCount();
+                new SampleDataAnalysisTask().perform(analysisContext);
+                Assert.assertEquals(analysisContext.getDiagnosticCount(), 0);
+            });
+        } finally {
+            properties.keySet().forEach(key -> System.clearProperty(DataMapperConfig.PROPERTY_PREFIX + key));
+        }
+    }
+
+    /**
+     * Runs a task a few times to warm up and then several more times, keeping the least wall time and allocated memory
+     * of the measured runs. The memory allocated by all the threads is measured, since the analysis uses worker
+     * threads.
+     */
+    private Measurement measure(Task task) throws IOException {
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            task.run();
+        }
+        Measurement measurement = new Measurement(Long.MAX_VALUE, Long.MAX_VALUE);
+        for (int run = 0; run < RUNS; run++) {
+            Map<Long, Long> allocatedBytes = getAllocatedBytes();
+            long startTime = System.nanoTime();
+            task.run();
+            long time = System.nanoTime() - startTime;
+            long runAllocatedBytes = 0;
+            for (Map.Entry<Long, Long> threadAllocatedBytes : getAllocatedBytes().entrySet()) {
+                runAllocatedBytes += threadAllocatedBytes.getValue() -
+                        allocatedBytes.getOrDefault(threadAllocatedBytes.getKey(), 0L);
+            }
+            measurement = new Measurement(Math.min(measurement.time, time),
+                    Math.min(measurement.allocatedBytes, runAllocatedBytes));
+        }
+        return measurement;
+    }
+
+    private Map<Long, Long> getAllocatedBytes() {
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+        Map<Long, Long> threadAllocatedBytes = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            // threads which ended while being measured are skipped
+            if (allocatedBytes[i] >= 0) {
+                threadAllocatedBytes.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+        return threadAllocatedBytes;
+    }
+
+    private static void assertScalesLinearly(Measurement measurement, Measurement doubledMeasurement) {
+        double timeRatio = (double) doubledMeasurement.time / measurement.time;
+        double allocationRatio = (double) doubledMeasurement.allocatedBytes / measurement.allocatedBytes;
+        Assert.assertTrue(timeRatio <= MAX_TIME_RATIO, "doubling the input multiplied the wall time by " +
+                timeRatio);
+        Assert.assertTrue(allocationRatio <= MAX_ALLOCATION_RATIO, "doubling the input multiplied the allocated " +
+                "memory by " + allocationRatio);
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+
+    private static class Measurement {
+        private final long time;
+        private final long allocatedBytes;
+
+        Measurement(long time, long allocatedBytes) {
+            this.time = time;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
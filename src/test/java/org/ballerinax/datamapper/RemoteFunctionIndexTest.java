@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test cases for the index of the remote methods.
+ */
+public class RemoteFunctionIndexTest {
+    private static final String CLIENT = "ballerinax/test.module:0.1.0:Client";
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String LABEL = "ballerinax/test.module:0.1.0:Label";
+
+    private Path directory;
+    private Path indexFile;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("datamapper");
+        indexFile = directory.resolve("target").resolve(RemoteFunctionIndex.INDEX_FILE_NAME);
+    }
+
+    @Test
+    public void testFunctionsAreLookedUpByNameAndType() throws IOException {
+        FunctionRecord createIssue = new FunctionRecord(CLIENT, "createIssue");
+        createIssue.addParameter("issue", List.of(ISSUE));
+        createIssue.addParameter("labels", List.of(LABEL + "[]", "()"));
+        createIssue.addReturnType(ISSUE);
+        FunctionRecord listLabels = new FunctionRecord(CLIENT, "listLabels");
+        listLabels.addParameter("owner", List.of("string"));
+        listLabels.addReturnType(LABEL + "[]");
+        FunctionRecord getIssue = new FunctionRecord("ballerinax/test.module:0.1.0:Client2", "createIssue");
+        getIssue.addReturnType(ISSUE + "?");
+        RemoteFunctionIndex.write(indexFile, List.of(createIssue, listLabels, getIssue));
+
+        RemoteFunctionIndex index = RemoteFunctionIndex.open(indexFile);
+        Assert.assertEquals(index.getFunctionCount(), 3);
+        FunctionRecord function = index.getFunction(0);
+        Assert.assertEquals(function.getClientName(), CLIENT);
+        Assert.assertEquals(function.getName(), "createIssue");
+        Assert.assertEquals(new ArrayList<>(function.getParameters().keySet()), List.of("issue", "labels"));
+        Assert.assertEquals(function.getParameters().get("labels"), List.of(LABEL + "[]", "()"));
+        Assert.assertEquals(function.getReturnTypes(), List.of(ISSUE));
+
+        Assert.assertEquals(getClientNames(index.getFunctionsByName("createIssue")),
+                List.of(CLIENT, "ballerinax/test.module:0.1.0:Client2"));
+        Assert.assertEquals(getNames(index.getFunctionsByType(ISSUE)), List.of("createIssue", "createIssue"));
+        Assert.assertEquals(getNames(index.getFunctionsByType(LABEL)), List.of("createIssue", "listLabels"));
+        Assert.assertEquals(getNames(index.getFunctionsByType(LABEL + "[]")), List.of("createIssue", "listLabels"));
+        Assert.assertEquals(getNames(index.getFunctionsByType("string")), List.of("listLabels"));
+        Assert.assertTrue(index.getFunctionsByName("deleteIssue").isEmpty());
+        Assert.assertTrue(index.getFunctionsByType("int").isEmpty());
+    }
+
+    @Test
+    public void testEveryFunctionIsFound() throws IOException {
+        List<FunctionRecord> functions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            FunctionRecord function = new FunctionRecord(CLIENT, "get" + i);
+            function.addReturnType("ballerinax/test.module:0.1.0:Type" + i);
+            functions.add(function);
+        }
+        RemoteFunctionIndex.write(indexFile, functions);
+
+        RemoteFunctionIndex index = RemoteFunctionIndex.open(indexFile);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(getNames(index.getFunctionsByName("get" + i)), List.of("get" + i));
+            Assert.assertEquals(getNames(index.getFunctionsByType("ballerinax/test.module:0.1.0:Type" + i)),
+                    List.of("get" + i));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() throws IOException {
+        RemoteFunctionIndex.write(indexFile, List.of());
+        RemoteFunctionIndex index = RemoteFunctionIndex.open(indexFile);
+        Assert.assertEquals(index.getFunctionCount(), 0);
+        Assert.assertTrue(index.getFunctionsByName("createIssue").isEmpty());
+        Assert.assertTrue(index.getFunctionsByType(ISSUE).isEmpty());
+    }
+
+    @Test
+    public void testUnchangedIndexIsNotWrittenAgain() throws IOException {
+        FunctionRecord getIssue = new FunctionRecord(CLIENT, "getIssue");
+        getIssue.addReturnType(ISSUE);
+        RemoteFunctionIndex.write(indexFile, List.of(getIssue));
+        FileTime lastModified = FileTime.fromMillis(Files.getLastModifiedTime(indexFile).toMillis() - 60000);
+        Files.setLastModifiedTime(indexFile, lastModified);
+
+        RemoteFunctionIndex.write(indexFile, List.of(getIssue));
+        Assert.assertEquals(Files.getLastModifiedTime(indexFile), lastModified);
+
+        FunctionRecord listLabels = new FunctionRecord(CLIENT, "listLabels");
+        listLabels.addReturnType(LABEL + "[]");
+        RemoteFunctionIndex.write(indexFile, List.of(getIssue, listLabels));
+        Assert.assertNotEquals(Files.getLastModifiedTime(indexFile), lastModified);
+        Assert.assertEquals(RemoteFunctionIndex.open(indexFile).getFunctionCount(), 2);
+        try (Stream<Path> files = Files.list(indexFile.getParent())) {
+            Assert.assertEquals(files.collect(Collectors.toList()), List.of(indexFile));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testOtherFilesAreRejected() throws IOException {
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "{\"version\": 1}");
+        RemoteFunctionIndex.open(indexFile);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+
+    private static List<String> getNames(List<FunctionRecord> functions) {
+        return functions.stream().map(FunctionRecord::getName).collect(Collectors.toList());
+    }
+
+    private static List<String> getClientNames(List<FunctionRecord> functions) {
+        return functions.stream().map(FunctionRecord::getClientName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.datamapper;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test cases for listing the sample data files of the resources directories.
+ */
+public class ResourceIndexTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+
+    private Path directory;
+    private Path resourceDirectory;
+    private Path indexFile;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("datamapper-resources");
+        resourceDirectory = Files.createDirectories(directory.resolve("resources"));
+        indexFile = directory.resolve("target").resolve(ResourceIndex.INDEX_FILE_NAME);
+        Files.writeString(resourceDirectory.resolve("Issue_data.json"), "{\"" + ISSUE + "\": []}");
+        Files.writeString(resourceDirectory.resolve("image.png"), "image");
+        Path nestedDirectory = Files.createDirectories(resourceDirectory.resolve("nested"));
+        Files.writeString(nestedDirectory.resolve("Creator_data.json"), "{\"" + CREATOR + "\": []}");
+        Files.writeString(nestedDirectory.resolve("Invalid_data.json"), "[]");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testSampleDataFilesAreListed() throws IOException {
+        List<ResourceIndex.Entry> files = ResourceIndex.load(indexFile).list(resourceDirectory);
+
+        Assert.assertEquals(describe(files), List.of(
+                resourceDirectory.resolve("Issue_data.json") + " " + ISSUE,
+                resourceDirectory.resolve("nested").resolve("Creator_data.json") + " " + CREATOR,
+                resourceDirectory.resolve("nested").resolve("Invalid_data.json") + " null"));
+        Assert.assertEquals(files.get(0).getSize(), Files.size(resourceDirectory.resolve("Issue_data.json")));
+    }
+
+    @Test
+    public void testChangesAreFoundAfterReload() throws IOException {
+        ResourceIndex resourceIndex = ResourceIndex.load(indexFile);
+        resourceIndex.list(resourceDirectory);
+        resourceIndex.save();
+        Assert.assertTrue(Files.isRegularFile(indexFile));
+
+        Path issueFile = resourceDirectory.resolve("Issue_data.json");
+        Files.writeString(issueFile, "{\"" + CREATOR + "\": [{}]}");
+        bumpLastModifiedTime(issueFile);
+        Files.delete(resourceDirectory.resolve("nested").resolve("Invalid_data.json"));
+        Path assignee = Files.createDirectories(resourceDirectory.resolve("other")).resolve("Assignee_data.json");
+        Files.writeString(assignee, "{\"Assignee\": []}");
+        bumpLastModifiedTime(resourceDirectory);
+        bumpLastModifiedTime(resourceDirectory.resolve("nested"));
+
+        Assert.assertEquals(describe(ResourceIndex.load(indexFile).list(resourceDirectory)), List.of(
+                issueFile + " " + CREATOR,
+                resourceDirectory.resolve("nested").resolve("Creator_data.json") + " " + CREATOR,
+                assignee + " Assignee"));
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotReadAgain() throws IOException {
+        ResourceIndex resourceIndex = ResourceIndex.load(indexFile);
+        resourceIndex.list(resourceDirectory);
+        resourceIndex.save();
+
+        // an unchanged file keeps the record type it declared when it was indexed
+        Path creatorFile = resourceDirectory.resolve("nested").resolve("Creator_data.json");
+        FileTime lastModifiedTime = Files.getLastModifiedTime(creatorFile);
+        Files.writeString(creatorFile, "{\"" + CREATOR.replace("Creator", "Creato2") + "\": []}");
+        Files.setLastModifiedTime(creatorFile, lastModifiedTime);
+
+        List<ResourceIndex.Entry> files = ResourceIndex.load(indexFile).list(resourceDirectory);
+        Assert.assertEquals(files.get(1).getTypeName(), CREATOR);
+    }
+
+    @Test
+    public void testCorruptCompressedFilesAreListed() throws IOException {
+        Path gzipFile = resourceDirectory.resolve("Broken" + SampleDataReader.GZIP_FILE_SUFFIX);
+        Files.writeString(gzipFile, "{\"" + ISSUE + "\": []}");
+        List<String> files = describe(ResourceIndex.load(indexFile).list(resourceDirectory));
+
+        // the type of the file is not known, hence it is read and reported by the analysis
+        Assert.assertTrue(files.contains(gzipFile + " null"), files.toString());
+    }
+
+    @Test(expectedExceptions = NoSuchFileException.class)
+    public void testMissingDirectory() throws IOException {
+        ResourceIndex.load(null).list(directory.resolve("missing"));
+    }
+
+    private static void bumpLastModifiedTime(Path path) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 1000));
+    }
+
+    private static List<String> describe(List<ResourceIndex.Entry> files) {
+        List<String> descriptions = new ArrayList<>();
+        for (ResourceIndex.Entry file : files) {
+            descriptions.add(file.getPath() + " " + file.getTypeName());
+        }
+        return descriptions;
+    }
+}
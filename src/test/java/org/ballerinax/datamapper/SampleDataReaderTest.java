@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.text.LineRange;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test cases for reading sample data files.
+ */
+public class SampleDataReaderTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+    private static final String LABEL = "ballerinax/test.module:0.1.0:Label";
+    private static final String NODE = "ballerinax/test.module:0.1.0:Node";
+    private static final String COMMENT = "ballerinax/test.module:0.1.0:Comment";
+
+    private Map<String, RecordSchema> recordSchemas;
+    private Path directory;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("author", CREATOR);
+        issue.put("id", "string");
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        creator.put("url", "string?");
+        Map<String, String> label = new LinkedHashMap<>();
+        label.put("name", "string");
+        label.put("count", "int");
+        label.put("weight", "float?");
+        label.put("visible", "boolean");
+        label.put("tags", "string[]");
+        Map<String, String> node = new LinkedHashMap<>();
+        node.put("name", "string");
+        node.put("child", NODE + "?");
+        Map<String, String> comment = new LinkedHashMap<>();
+        comment.put("body", "string");
+        comment.put("author", CREATOR);
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        recordTypes.put(LABEL, label);
+        recordTypes.put(NODE, node);
+        recordTypes.put(COMMENT, comment);
+        recordSchemas = RecordSchema.compile(recordTypes);
+        directory = Files.createTempDirectory("datamapper");
+    }
+
+    @Test
+    public void testColumnsAreCountedInCharacters() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"%s\", \"url2\": null}, \"id2\": \"%s\"},\n" +
+                "  {\"author\": {\"login\": \"%s\", \"url\": null}, \"id\": \"1\", \"number\": 1}\n" +
+                "]}";
+        List<String> diagnostics = read(String.format(content, "\u00e7\u00f8d\u00e9", "\u00fcml\u00e5ut", "\u00f1"));
+        Assert.assertEquals(diagnostics.size(), 4);
+        Assert.assertEquals(diagnostics, read(String.format(content, "code", "umlaut", "n")));
+    }
+
+    @Test
+    public void testMalformedContentLocation() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"%s\", \"url\": null}, \"id\": \"1\",, }\n" +
+                "]}";
+        List<String> diagnostics = read(String.format(content, "\u00e7\u00f8d\u00e9"));
+        Assert.assertEquals(diagnostics.size(), 1);
+        Assert.assertTrue(diagnostics.get(0).contains(" at [Source: (InputStreamReader); line: 2, column: 57]"),
+                diagnostics.get(0));
+        Assert.assertEquals(diagnostics, read(String.format(content, "code")));
+    }
+
+    @Test
+    public void testLargeFile() throws IOException {
+        StringBuilder content = new StringBuilder("{\"" + ISSUE + "\": [\n");
+        int recordCount = 20000;
+        for (int i = 0; i < recordCount; i++) {
+            content.append("  {\"author\": {\"login\": \"\u00e7\u00f8d\u00e9\", \"url\": null}, \"")
+                    .append(i == recordCount - 1 ? "id3" : "id2").append("\": \"").append(i).append("\"}")
+                    .append(i == recordCount - 1 ? "\n" : ",\n");
+        }
+        content.append("]}");
+        Assert.assertTrue(content.length() > 1024 * 1024);
+
+        List<String> diagnostics = read(content.toString());
+        Assert.assertEquals(diagnostics.size(), 2);
+        Assert.assertTrue(diagnostics.get(0).contains("'id2' (found " + (recordCount - 1) + " times) 1:"),
+                diagnostics.get(0));
+        Assert.assertTrue(diagnostics.get(1).contains("'id3' " + recordCount + ":"), diagnostics.get(1));
+        Assert.assertEquals(withoutLines(getLocation(diagnostics.get(1))),
+                withoutLines(getLocation(diagnostics.get(0))));
+    }
+
+    @Test
+    public void testReadingStopsAtDiagnosticLimit() throws IOException {
+        StringBuilder content = new StringBuilder("{\"" + ISSUE + "\": [\n");
+        int recordCount = 10;
+        for (int i = 0; i < recordCount; i++) {
+            content.append("  {\"author\": {\"login\": \"user\", \"url2\": null}, \"key").append(i)
+                    .append("\": \"1\"}").append(i == recordCount - 1 ? "\n" : ",\n");
+        }
+        content.append("]}");
+
+        List<String> diagnostics = read(content.toString(), 3);
+        Assert.assertEquals(diagnostics.size(), 3);
+        Assert.assertTrue(diagnostics.get(0).startsWith("type '" + CREATOR + "' does not have an attribute named " +
+                "'url2' (found 2 times) 1:"), diagnostics.get(0));
+        Assert.assertTrue(diagnostics.get(1).startsWith("type '" + ISSUE + "' does not have an attribute named " +
+                "'key0' 1:"), diagnostics.get(1));
+        Assert.assertEquals(diagnostics.get(2), "the file has more than '3' problems, the rest of the file " +
+                "is not validated 0:0-0:0");
+        Assert.assertEquals(read(content.toString(), 0).size(), recordCount + 1);
+    }
+
+    @Test
+    public void testReadingStopsAtDiagnosticLimitOfRepeatedProblem() throws IOException {
+        StringBuilder content = new StringBuilder("{\"" + ISSUE + "\": [\n");
+        int recordCount = 10;
+        for (int i = 0; i < recordCount; i++) {
+            content.append("  {\"author\": {\"login\": \"user\", \"url2\": null}, \"id\": \"").append(i)
+                    .append("\"}").append(i == recordCount - 1 ? "\n" : ",\n");
+        }
+        content.append("]}");
+        Path dataFile = writeDataFile(content.toString());
+
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), null, recordSchemas,
+                new SampleDataBuffer(), 3);
+        reader.read();
+        reader.getSampleData().close();
+        Assert.assertTrue(reader.getDiagnostics().isLimitReached());
+        Assert.assertTrue(reader.getRecordCount() < recordCount, String.valueOf(reader.getRecordCount()));
+
+        List<String> diagnostics = read(content.toString(), 3);
+        Assert.assertEquals(diagnostics.size(), 2);
+        Assert.assertTrue(diagnostics.get(0).startsWith("type '" + CREATOR + "' does not have an attribute named " +
+                "'url2' (found 3 times) 1:"), diagnostics.get(0));
+        Assert.assertEquals(diagnostics.get(1), "the file has more than '3' problems, the rest of the file " +
+                "is not validated 0:0-0:0");
+    }
+
+    @Test
+    public void testRecordsAreCounted() throws IOException {
+        StringBuilder content = new StringBuilder("{\"" + ISSUE + "\": [\n");
+        int recordCount = 5;
+        for (int i = 0; i < recordCount; i++) {
+            content.append("  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"")
+                    .append(i).append("\"}").append(i == recordCount - 1 ? "\n" : ",\n");
+        }
+        content.append("]}");
+        Path dataFile = writeDataFile(content.toString());
+
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        reader.getSampleData().close();
+        Assert.assertEquals(reader.getRecordCount(), recordCount);
+        Assert.assertEquals(reader.getNestedRecordCount(), recordCount);
+
+        List<SampleDataChunk> chunks = SampleDataSplitter.split(dataFile, 64);
+        Assert.assertTrue(chunks.size() > 1);
+        long chunkRecordCount = 0;
+        long chunkNestedRecordCount = 0;
+        for (SampleDataChunk chunk : chunks) {
+            SampleDataReader chunkReader = new SampleDataReader(dataFile.toString(), chunk, recordSchemas);
+            chunkReader.read();
+            chunkReader.getSampleData().close();
+            chunkRecordCount += chunkReader.getRecordCount();
+            chunkNestedRecordCount += chunkReader.getNestedRecordCount();
+        }
+        Assert.assertEquals(chunkRecordCount, recordCount);
+        Assert.assertEquals(chunkNestedRecordCount, recordCount);
+    }
+
+    @Test
+    public void testValuesAreCheckedAgainstFieldTypes() throws IOException {
+        String content = "{\"" + LABEL + "\": [\n" +
+                "  {\"name\": \"a\", \"count\": 1, \"weight\": 1.5, \"visible\": true, \"tags\": [\"x\"]},\n" +
+                "  {\"name\": \"b\", \"count\": \"2\", \"weight\": null, \"visible\": \"false\", \"tags\": null},\n" +
+                "  {\"name\": 3, \"count\": 1.5, \"weight\": \"heavy\", \"visible\": 1, \"tags\": [\"y\", {}]}\n" +
+                "]}";
+        List<String> diagnostics = read(content);
+        Assert.assertEquals(diagnostics, List.of(
+                "attribute 'count' of type '" + LABEL + "' expects a value of type 'int', found it as a string, " +
+                        "which will be an error in a later release 2:25-2:28",
+                "attribute 'visible' of type '" + LABEL + "' expects a value of type 'boolean', found it as a " +
+                        "string, which will be an error in a later release 2:57-2:64",
+                "attribute 'name' of type '" + LABEL + "' expects a value of type 'string', found 'number' 3:11-3:12",
+                "attribute 'count' of type '" + LABEL + "' expects a value of type 'int', found 'number' 3:23-3:26",
+                "attribute 'weight' of type '" + LABEL + "' expects a value of type 'float?', found 'string' " +
+                        "3:38-3:45",
+                "attribute 'visible' of type '" + LABEL + "' expects a value of type 'boolean', found 'number' " +
+                        "3:58-3:59",
+                "attribute 'tags' of type '" + LABEL + "' expects a value of type 'string[]', found 'object' " +
+                        "3:75-3:76"));
+    }
+
+    @Test
+    public void testAttributeCountIsReportedFromLastNestedRecord() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"id\": \"1\", \"author\": {\"login\": \"user\", \"url\": null}, \"number\": 1},\n" +
+                "  {\"id\": \"2\"}\n" +
+                "]}";
+        List<String> diagnostics = read(content);
+        Assert.assertEquals(diagnostics, List.of(
+                "type '" + ISSUE + "' does not have an attribute named 'number' 1:56-1:64",
+                "invalid attribute count: expected '2', found '3' 1:25-1:68",
+                "invalid attribute count: expected '2', found '1' 2:3-2:13"));
+    }
+
+    @Test
+    public void testAttributeCountsOfDifferentTypesAreReportedSeparately() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"user\"}}\n" +
+                "]}";
+        Assert.assertEquals(read(content), List.of(
+                "invalid attribute count: expected '2', found '1' 1:14-1:30",
+                "invalid attribute count: expected '2', found '1' 1:14-1:31"));
+    }
+
+    @Test
+    public void testNestedRecordAsLastField() throws IOException {
+        String content = "{\"" + COMMENT + "\": [\n" +
+                "  {\"body\": \"1\", \"author\": {\"login\": \"user\", \"url\": null}},\n" +
+                "  {\"body\": \"2\", \"author\": {\"login\": \"user\", \"url\": null, \"id\": \"2\"}},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}},\n" +
+                "  {\"body\": \"4\", \"author\": {\"login\": \"user\", \"url\": null}}\n" +
+                "]}";
+        Path dataFile = writeDataFile(content);
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        reader.getSampleData().close();
+        Assert.assertEquals(reader.getRecordCount(), 4);
+        Assert.assertEquals(reader.getNestedRecordCount(), 4);
+
+        Assert.assertEquals(read(content), List.of(
+                "type '" + CREATOR + "' does not have an attribute named 'id' 2:57-2:61",
+                "invalid attribute count: expected '2', found '3' 2:27-2:67",
+                "invalid attribute count: expected '2', found '1' 3:14-3:44"));
+    }
+
+    @Test
+    public void testRecordsAreNestedToAnyDepth() throws IOException {
+        int depth = 100;
+        StringBuilder record = new StringBuilder();
+        for (int level = 0; level <= depth; level++) {
+            record.append("{\"name\": \"").append(level).append("\", \"child\": ");
+        }
+        record.append("null");
+        for (int level = 0; level <= depth; level++) {
+            record.append("}");
+        }
+        Path dataFile = writeDataFile("{\"" + NODE + "\": [\n  " + record + "\n]}");
+
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        reader.read();
+        reader.getSampleData().close();
+        Assert.assertTrue(reader.getDataMapperLog().getDataMapperPluginDiagnostic().isEmpty());
+        Assert.assertEquals(reader.getRecordCount(), 1);
+        Assert.assertEquals(reader.getNestedRecordCount(), depth);
+        Assert.assertEquals(reader.getSampleData().getRecordCount(), depth);
+
+        String invalidRecord = record.toString().replace("\"child\": null", "\"child\": null, \"parent\": null");
+        List<String> diagnostics = read("{\"" + NODE + "\": [\n  " + invalidRecord + "\n]}");
+        Assert.assertEquals(diagnostics.size(), 2);
+        Assert.assertTrue(diagnostics.get(0).startsWith("type '" + NODE + "' does not have an attribute named " +
+                "'parent'"), diagnostics.get(0));
+        Assert.assertTrue(diagnostics.get(1).startsWith("invalid attribute count: expected '2', found '3'"),
+                diagnostics.get(1));
+    }
+
+    @Test
+    public void testBinaryFilesAreReportedByRecordIndex() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"1\"},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url2\": null}, \"id\": \"2\"},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"3\", \"number\": 1}\n" +
+                "]}";
+        Path dataFile = writeDataFile(content);
+        List<String> expected = new ArrayList<>();
+        for (String diagnostic : read(dataFile, 0)) {
+            expected.add(diagnostic.substring(0, diagnostic.lastIndexOf(' ')));
+        }
+        Assert.assertEquals(expected.size(), 3);
+
+        for (String format : List.of(SampleDataConverter.CBOR_FORMAT, SampleDataConverter.SMILE_FORMAT)) {
+            Path binaryFile = SampleDataConverter.convert(dataFile, format);
+            Assert.assertTrue(SampleDataReader.isSampleDataFile(binaryFile.getFileName().toString()));
+            Assert.assertEquals(SampleDataReader.readTypeName(binaryFile), ISSUE);
+            List<String> diagnostics = read(binaryFile, 0);
+            // the problems are found in the second and the third record
+            Assert.assertEquals(diagnostics, List.of(expected.get(0) + " 1:0-1:0", expected.get(1) + " 2:0-2:0",
+                    expected.get(2) + " 2:0-2:0"));
+        }
+    }
+
+    @Test
+    public void testGzipFilesAreReportedAtDecompressedLocations() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"1\"},\n" +
+                "  {\"author\": {\"login\": \"us\u00e9r\", \"url2\": null}, \"id\": \"2\"},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"3\", \"number\": 1}\n" +
+                "]}";
+        List<String> expected = read(content);
+        Assert.assertEquals(expected.size(), 3);
+
+        Path gzipFile = Files.createTempFile(directory, "Issue", SampleDataReader.GZIP_FILE_SUFFIX);
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        Assert.assertTrue(SampleDataReader.isSampleDataFile(gzipFile.getFileName().toString()));
+        Assert.assertEquals(SampleDataReader.readTypeName(gzipFile), ISSUE);
+        Assert.assertEquals(read(gzipFile, 0), expected);
+    }
+
+    @Test
+    public void testCorruptGzipFilesAreReported() throws IOException {
+        String content = "{\"" + ISSUE + "\": [\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"1\"},\n" +
+                "  {\"author\": {\"login\": \"user\", \"url\": null}, \"id\": \"2\"}\n" +
+                "]}";
+        Path gzipFile = Files.createTempFile(directory, "Issue", SampleDataReader.GZIP_FILE_SUFFIX);
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] compressed = Files.readAllBytes(gzipFile);
+        Files.write(gzipFile, Arrays.copyOf(compressed, compressed.length / 2));
+        SampleDataReader.readTypeName(gzipFile);
+        List<String> diagnostics = read(gzipFile, 0);
+        Assert.assertEquals(diagnostics.size(), 1);
+        Assert.assertTrue(diagnostics.get(0).startsWith("invalid JSON content: 'Unexpected end of ZLIB input stream'"),
+                diagnostics.get(0));
+
+        Files.write(gzipFile, content.getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(SampleDataReader.readTypeName(gzipFile));
+        Assert.assertEquals(read(gzipFile, 0), List.of("invalid JSON content: 'Not in GZIP format' 0:0-0:0"));
+    }
+
+    private Path writeDataFile(String content) throws IOException {
+        Path dataFile = Files.createTempFile(directory, "Issue", "_data.json");
+        Files.write(dataFile, content.getBytes(StandardCharsets.UTF_8));
+        return dataFile;
+    }
+
+    private List<String> read(String content) throws IOException {
+        return read(content, 0);
+    }
+
+    private List<String> read(String content, int diagnosticLimit) throws IOException {
+        return read(writeDataFile(content), diagnosticLimit);
+    }
+
+    private List<String> read(Path dataFile, int diagnosticLimit) throws IOException {
+        SampleDataReader reader = new SampleDataReader(dataFile.toString(), null, recordSchemas,
+                new SampleDataBuffer(), diagnosticLimit);
+        reader.read();
+        reader.getSampleData().close();
+        List<String> descriptions = new ArrayList<>();
+        for (Diagnostic diagnostic : reader.getDataMapperLog().getDataMapperPluginDiagnostic()) {
+            LineRange lineRange = diagnostic.location().lineRange();
+            descriptions.add(diagnostic.message() + " " + lineRange.startLine().line() + ":" +
+                    lineRange.startLine().offset() + "-" + lineRange.endLine().line() + ":" +
+                    lineRange.endLine().offset());
+        }
+        return descriptions;
+    }
+
+    private static String getLocation(String description) {
+        return description.substring(description.lastIndexOf(' '));
+    }
+
+    private static String withoutLines(String description) {
+        return description.replaceAll("[ -]\\d+:", ":");
+    }
+
+    @AfterClass
+    public void tearDown() {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+}
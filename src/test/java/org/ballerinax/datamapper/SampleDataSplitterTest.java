@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.text.LineRange;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test cases for reading large sample data files in chunks.
+ */
+public class SampleDataSplitterTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+
+    private Map<String, RecordSchema> recordSchemas;
+    private Path dataFile;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("author", CREATOR);
+        issue.put("id", "string");
+        issue.put("number", "int");
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        creator.put("url", "string?");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        recordSchemas = RecordSchema.compile(recordTypes);
+
+        StringBuilder content = new StringBuilder("{\r\n  \"" + ISSUE + "\": [\r\n");
+        for (int i = 0; i < 100; i++) {
+            content.append("    {\r\n");
+            content.append("      \"author\": {\"login\": \"us\u00e9r\", \"").append(i % 9 == 0 ? "url2" : "url")
+                    .append("\": null},\r\n");
+            content.append("      \"").append(i % 7 == 0 ? "id2" : "id").append("\": \"{[\\\"").append(i)
+                    .append("\"");
+            if (i % 11 != 0) {
+                content.append(",\r\n      \"number\": ").append(i);
+            }
+            content.append("\r\n");
+            content.append(i == 99 ? "    }\r\n" : "    },\r\n");
+        }
+        content.append("  ]\r\n}\r\n");
+        dataFile = Files.createTempFile("Issue", "_data.json");
+        Files.write(dataFile, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testChunkedReadMatchesSequentialRead() throws IOException {
+        List<SampleDataChunk> chunks = SampleDataSplitter.split(dataFile, 1024);
+        Assert.assertTrue(chunks.size() > 1);
+
+        SampleDataReader fileReader = new SampleDataReader(dataFile.toString(), recordSchemas);
+        fileReader.read();
+        List<String> expected = describe(fileReader.getDataMapperLog().getDataMapperPluginDiagnostic());
+        long expectedSamples = fileReader.getSampleData().getRecordCount();
+        fileReader.getSampleData().close();
+
+        SampleDataResult result = new SampleDataResult();
+        long actualSamples = 0;
+        for (SampleDataChunk chunk : chunks) {
+            Assert.assertEquals(chunk.getTypeName(), ISSUE);
+            SampleDataReader chunkReader = new SampleDataReader(dataFile.toString(), chunk, recordSchemas);
+            chunkReader.read();
+            Assert.assertFalse(chunkReader.isMalformed());
+            result.add(chunkReader);
+            actualSamples += chunkReader.getSampleData().getRecordCount();
+            chunkReader.getSampleData().close();
+        }
+        List<String> actual = describe(result.getDataMapperLog().getDataMapperPluginDiagnostic());
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(actualSamples, expectedSamples);
+    }
+
+    @Test
+    public void testSmallFileIsNotSplit() throws IOException {
+        Assert.assertTrue(SampleDataSplitter.split(dataFile, Files.size(dataFile)).isEmpty());
+    }
+
+    @Test
+    public void testFileWithMultipleTypesIsNotSplit() throws IOException {
+        Path file = Files.createTempFile("Multiple", "_data.json");
+        try {
+            Files.writeString(file, "{\"" + ISSUE + "\": [{\"id\": \"1\"}, {\"id\": \"2\"}], \"" + CREATOR +
+                    "\": [{\"login\": \"user\"}]}");
+            Assert.assertTrue(SampleDataSplitter.split(file, 1).isEmpty());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testJsonLinesChunksMatchSingleChunk() throws IOException {
+        StringBuilder content = new StringBuilder("\"" + ISSUE + "\"\n");
+        for (int i = 0; i < 100; i++) {
+            content.append("{\"author\": {\"login\": \"us\u00e9r\", \"").append(i % 9 == 0 ? "url2" : "url")
+                    .append("\": null}, \"").append(i % 7 == 0 ? "id2" : "id").append("\": \"").append(i)
+                    .append("\", \"number\": ").append(i % 11 == 0 ? "\"x\"" : String.valueOf(i)).append("}")
+                    .append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        Path file = Files.createTempFile("Issue", SampleDataReader.JSON_LINES_FILE_SUFFIX);
+        try {
+            Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(SampleDataReader.readTypeName(file), ISSUE);
+
+            // an unsplit file is read as a whole, without copying it into a chunk
+            List<SampleDataChunk> wholeFile = SampleDataSplitter.splitLines(file, ISSUE, 0);
+            Assert.assertEquals(wholeFile.size(), 1);
+            Assert.assertTrue(wholeFile.get(0).isWholeFile(Files.size(file)));
+            List<String> expected = readJsonLines(file, wholeFile);
+            Assert.assertFalse(expected.isEmpty());
+            // the first unknown attribute is reported on the line of the first record, after the header line
+            Assert.assertTrue(expected.get(0).endsWith(" 1:29-1:35"), expected.get(0));
+
+            List<SampleDataChunk> chunks = SampleDataSplitter.splitLines(file, ISSUE, 1024);
+            Assert.assertTrue(chunks.size() > 1);
+            for (SampleDataChunk chunk : chunks) {
+                Assert.assertTrue(chunk.getLength() <= 1024);
+                Assert.assertFalse(chunk.isWholeFile(Files.size(file)));
+            }
+            Assert.assertEquals(readJsonLines(file, chunks), expected);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private List<String> readJsonLines(Path file, List<SampleDataChunk> chunks) throws IOException {
+        SampleDataResult result = new SampleDataResult();
+        long recordCount = 0;
+        for (SampleDataChunk chunk : chunks) {
+            SampleDataReader reader = new SampleDataReader(file.toString(), chunk, recordSchemas);
+            reader.read();
+            Assert.assertFalse(reader.isMalformed());
+            result.add(reader);
+            recordCount += reader.getRecordCount();
+            reader.getSampleData().close();
+        }
+        Assert.assertEquals(recordCount, 100);
+        return describe(result.getDataMapperLog().getDataMapperPluginDiagnostic());
+    }
+
+    private static List<String> describe(List<Diagnostic> diagnostics) {
+        List<String> descriptions = new ArrayList<>();
+        for (Diagnostic diagnostic : diagnostics) {
+            LineRange lineRange = diagnostic.location().lineRange();
+            descriptions.add(diagnostic.message() + " " + lineRange.startLine().line() + ":" +
+                    lineRange.startLine().offset() + "-" + lineRange.endLine().line() + ":" +
+                    lineRange.endLine().offset());
+        }
+        return descriptions;
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dataFile);
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test cases for writing the structure files of nested record types.
+ */
+public class SampleDataWriterTest {
+    private static final String ISSUE = "ballerinax/test.module:0.1.0:Issue";
+    private static final String CREATOR = "ballerinax/test.module:0.1.0:Creator";
+    private static final int RECORD_COUNT = 5000;
+
+    private Map<String, RecordSchema> recordSchemas;
+    private Path directory;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Map<String, String> issue = new LinkedHashMap<>();
+        issue.put("author", CREATOR);
+        issue.put("id", "string");
+        Map<String, String> creator = new LinkedHashMap<>();
+        creator.put("login", "string");
+        creator.put("url", "string?");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(ISSUE, issue);
+        recordTypes.put(CREATOR, creator);
+        recordSchemas = RecordSchema.compile(recordTypes);
+        directory = Files.createTempDirectory("datamapper");
+    }
+
+    @Test
+    public void testSamplesAreWrittenInFileOrder() throws IOException {
+        Path dataFile = createDataFile();
+        Path structureFile = directory.resolve("Creator_data.json");
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile)) {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+            reader.read();
+            Assert.assertEquals(reader.getSampleData().getRecordCount(), RECORD_COUNT);
+            Assert.assertTrue(writer.acceptsAny(reader.getSampleData().getTypeNames()));
+            reader.getSampleData().drainTo(writer);
+            writer.commit();
+        }
+
+        JsonNode samples = new ObjectMapper().readTree(structureFile.toFile()).get(CREATOR);
+        Assert.assertEquals(samples.size(), RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            Assert.assertEquals(samples.get(i).get("login").asText(), login(i));
+        }
+        Assert.assertEquals(Arrays.asList(directory.toFile().list()), Arrays.asList("Creator_data.json"));
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testExistingStructureFileIsNotOverwritten() throws IOException {
+        Path dataFile = createDataFile();
+        Path structureFile = directory.resolve("Author_data.json");
+        Files.writeString(structureFile, "{}");
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile)) {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), recordSchemas);
+            reader.read();
+            Assert.assertFalse(writer.acceptsAny(reader.getSampleData().getTypeNames()));
+            reader.getSampleData().drainTo(writer);
+            writer.commit();
+        }
+        Assert.assertEquals(Files.readString(structureFile), "{}");
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testRegeneratedStructureFileIsOnlyReplacedWhenChanged() throws IOException {
+        Path structureFile = directory.resolve("Regenerated_data.json");
+        Files.writeString(structureFile, "{}");
+        writeSamples(structureFile, 2, false);
+        String content = Files.readString(structureFile);
+        Assert.assertEquals(new ObjectMapper().readTree(content).get(CREATOR).size(), 2);
+
+        FileTime lastModifiedTime = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(structureFile, lastModifiedTime);
+        writeSamples(structureFile, 2, false);
+        Assert.assertEquals(Files.readString(structureFile), content);
+        Assert.assertEquals(Files.getLastModifiedTime(structureFile), lastModifiedTime);
+
+        writeSamples(structureFile, 3, false);
+        Assert.assertEquals(new ObjectMapper().readTree(structureFile.toFile()).get(CREATOR).size(), 3);
+        Assert.assertNotEquals(Files.getLastModifiedTime(structureFile), lastModifiedTime);
+        Assert.assertFalse(Files.exists(structureFile.resolveSibling("Regenerated_data.json.tmp")));
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testSamplesAreMergedIntoExistingStructureFile() throws IOException {
+        Path structureFile = directory.resolve("Merged_data.json");
+        Files.writeString(structureFile, "{\"" + CREATOR + "\": [{\"login\": \"admin\", \"url\": \"url\"}, " +
+                "{\"url\": null, \"login\": \"" + login(1) + "\"}]}");
+        writeSamples(structureFile, 3, true);
+
+        List<String> logins = new ArrayList<>();
+        for (JsonNode sample : new ObjectMapper().readTree(structureFile.toFile()).get(CREATOR)) {
+            logins.add(sample.get("login").asText());
+        }
+        Assert.assertEquals(logins, Arrays.asList("admin", login(1), login(0), login(2)));
+
+        FileTime lastModifiedTime = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(structureFile, lastModifiedTime);
+        writeSamples(structureFile, 3, true);
+        Assert.assertEquals(Files.getLastModifiedTime(structureFile), lastModifiedTime);
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testSamplesOfSeveralDataFilesAreCommittedOnce() throws IOException {
+        Path structureFile = directory.resolve("Shared_data.json");
+        Files.writeString(structureFile, "{}");
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile, 0, false, 0, true, false)) {
+            // a nested record type reached from the data files of two resources directories
+            for (int i = 0; i < 2; i++) {
+                SampleDataReader reader = new SampleDataReader(createDataFile().toString(), recordSchemas);
+                reader.read();
+                Assert.assertTrue(writer.acceptsAny(reader.getSampleData().getTypeNames()));
+                reader.getSampleData().drainTo(writer);
+            }
+            writer.commit();
+        }
+        Assert.assertEquals(new ObjectMapper().readTree(structureFile.toFile()).get(CREATOR).size(),
+                2 * RECORD_COUNT);
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testValuesAreWrittenWithTheirFieldTypes() throws IOException {
+        String team = "ballerinax/test.module:0.1.0:Team";
+        String member = "ballerinax/test.module:0.1.0:Member";
+        Map<String, String> teamFields = new LinkedHashMap<>();
+        teamFields.put("lead", member);
+        Map<String, String> memberFields = new LinkedHashMap<>();
+        memberFields.put("login", "string");
+        memberFields.put("followers", "int");
+        memberFields.put("score", "float?");
+        memberFields.put("admin", "boolean");
+        memberFields.put("team", team);
+        memberFields.put("tags", "string[]");
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        recordTypes.put(team, teamFields);
+        recordTypes.put(member, memberFields);
+        Map<String, RecordSchema> schemas = RecordSchema.compile(recordTypes);
+
+        Path dataFile = Files.createTempFile(directory, "Team", "_data.json");
+        Files.writeString(dataFile, "{\"" + team + "\": [{\"lead\": {\"login\": \"user\", \"followers\": 3, " +
+                "\"score\": 1.5, \"admin\": true, \"team\": null, \"tags\": [\"tag\"]}}]}");
+        Path structureFile = directory.resolve("Member_data.json");
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile)) {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), schemas);
+            reader.read();
+            reader.getSampleData().drainTo(writer);
+            writer.commit();
+        }
+        Files.delete(dataFile);
+
+        JsonNode sample = new ObjectMapper().readTree(structureFile.toFile()).get(member).get(0);
+        Assert.assertEquals(sample.get("login").asText(), "user");
+        Assert.assertTrue(sample.get("followers").isInt());
+        Assert.assertEquals(sample.get("followers").asInt(), 3);
+        Assert.assertTrue(sample.get("score").isDouble());
+        Assert.assertTrue(sample.get("admin").asBoolean());
+        Assert.assertTrue(sample.get("team").isNull());
+        Assert.assertTrue(sample.get("tags").isArray());
+
+        // the structure file is sample data of the nested record type, which is validated by the next build
+        SampleDataReader reader = new SampleDataReader(structureFile.toString(), schemas);
+        reader.read();
+        reader.getSampleData().close();
+        Assert.assertEquals(reader.getRecordCount(), 1);
+        Assert.assertTrue(reader.getDataMapperLog().getDataMapperPluginDiagnostic().isEmpty());
+        Files.delete(structureFile);
+    }
+
+    @Test
+    public void testFirstSamplesAreWritten() throws IOException {
+        List<String> logins = writeSamples(new SampleDataBuffer(10), 10, false, 0);
+        Assert.assertEquals(logins.size(), 10);
+        for (int i = 0; i < logins.size(); i++) {
+            Assert.assertEquals(logins.get(i), login(i));
+        }
+    }
+
+    @Test
+    public void testReservoirSamplingIsReproducible() throws IOException {
+        List<String> logins = writeSamples(new SampleDataBuffer(), 10, true, 7);
+        Assert.assertEquals(logins.size(), 10);
+        Assert.assertEquals(writeSamples(new SampleDataBuffer(), 10, true, 7), logins);
+        Assert.assertNotEquals(writeSamples(new SampleDataBuffer(), 10, true, 8), logins);
+
+        // the selected samples are written in file order
+        int previous = -1;
+        for (String login : logins) {
+            int index = Integer.parseInt(login.split("-")[1]);
+            Assert.assertTrue(index > previous);
+            previous = index;
+        }
+        Assert.assertTrue(previous >= 10);
+    }
+
+    private List<String> writeSamples(SampleDataBuffer sampleData, int sampleLimit, boolean reservoirSampling,
+                                      long samplingSeed) throws IOException {
+        Path dataFile = createDataFile();
+        Path structureFile = directory.resolve("Creator_data.json");
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile, sampleLimit,
+                reservoirSampling, samplingSeed)) {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), null, recordSchemas, sampleData);
+            reader.read();
+            reader.getSampleData().drainTo(writer);
+            writer.commit();
+        }
+        List<String> logins = new ArrayList<>();
+        for (JsonNode sample : new ObjectMapper().readTree(structureFile.toFile()).get(CREATOR)) {
+            logins.add(sample.get("login").asText());
+        }
+        Files.delete(structureFile);
+        return logins;
+    }
+
+    /**
+     * Regenerates a structure file from the first samples of a data file.
+     */
+    private void writeSamples(Path structureFile, int sampleLimit, boolean merging) throws IOException {
+        Path dataFile = createDataFile();
+        try (SampleDataWriter writer = new SampleDataWriter(typeName -> structureFile, 0, false, 0, true,
+                merging)) {
+            SampleDataReader reader = new SampleDataReader(dataFile.toString(), null, recordSchemas,
+                    new SampleDataBuffer(sampleLimit));
+            reader.read();
+            Assert.assertTrue(writer.acceptsAny(reader.getSampleData().getTypeNames()));
+            reader.getSampleData().drainTo(writer);
+            writer.commit();
+        }
+    }
+
+    private Path createDataFile() throws IOException {
+        StringBuilder content = new StringBuilder("{\"" + ISSUE + "\": [\n");
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            content.append("  {\"author\": {\"login\": \"").append(login(i)).append("\", \"url\": null}, \"id\": \"")
+                    .append(i).append("\"}").append(i == RECORD_COUNT - 1 ? "\n" : ",\n");
+        }
+        content.append("]}");
+        Path dataFile = Files.createTempFile("Issue", "_data.json");
+        Files.write(dataFile, content.toString().getBytes(StandardCharsets.UTF_8));
+        dataFile.toFile().deleteOnExit();
+        return dataFile;
+    }
+
+    private static String login(int i) {
+        // long enough for the samples of a file to be spilled and a structure file to be flushed more than once
+        return "us\u00e9r-" + i + "-" + "x".repeat(100);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        DataMapperPluginTest.deleteDirectory(directory);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates Ballerina packages of a given size, with a client class and record types in every module and a sample
+ * data file for every record type. Used by the scale tests and the benchmarks.
+ * <p>
+ * Every record type {@code Type<N>} has a field of the nested record type {@code Nested<N>_1} followed by string
+ * fields. Every nested record type {@code Nested<N>_<L>} has an id and a name followed by a field of the nested
+ * record type of the next level, down to the nesting depth, so that nested records are both the first and the last
+ * field of a record.
+ */
+final class SyntheticPackage {
+    static final String ORG_NAME = "ballerinax";
+    static final String PACKAGE_NAME = "bench";
+    static final String VERSION = "0.1.0";
+
+    private final int moduleCount;
+    private final int recordTypeCount;
+    private final int fieldCount;
+    private final int nestingDepth;
+    private final int recordCount;
+
+    /**
+     * Describes a package of the given size, which is only written by {@link #create()}.
+     *
+     * @param moduleCount     number of non-default modules
+     * @param recordTypeCount number of record types with sample data in every module
+     * @param fieldCount      number of string fields of a record type
+     * @param nestingDepth    number of nested record types below a record type
+     * @param recordCount     number of records in a sample data file
+     */
+    SyntheticPackage(int moduleCount, int recordTypeCount, int fieldCount, int nestingDepth, int recordCount) {
+        this.moduleCount = moduleCount;
+        this.recordTypeCount = recordTypeCount;
+        this.fieldCount = fieldCount;
+        this.nestingDepth = nestingDepth;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Creates the package in a new temporary directory.
+     *
+     * @return root directory of the package
+     */
+    Path create() throws IOException {
+        Path packageDirectory = Files.createTempDirectory("datamapper-synthetic");
+        Files.writeString(packageDirectory.resolve("Ballerina.toml"), "[package]\norg = \"" + ORG_NAME +
+                "\"\nname = \"" + PACKAGE_NAME + "\"\nversion = \"" + VERSION + "\"\n");
+        Files.writeString(packageDirectory.resolve("main.bal"), "public function main() {\n}\n");
+        for (int module = 0; module < moduleCount; module++) {
+            String moduleName = getModuleName(module);
+            Path moduleDirectory = Files.createDirectories(packageDirectory.resolve("modules").resolve(moduleName));
+            Path resourceDirectory = Files.createDirectories(moduleDirectory.resolve("resources"));
+            StringBuilder source = new StringBuilder("public client class Client {\n" +
+                    "    remote function get() returns Type0|error {\n        return {};\n    }\n}\n");
+            for (int type = 0; type < recordTypeCount; type++) {
+                source.append("\npublic type Type").append(type).append(" record {|\n");
+                if (nestingDepth > 0) {
+                    source.append("    ").append(getNestedRecordName(type, 1)).append(" nested = {};\n");
+                }
+                for (int field = 0; field < fieldCount; field++) {
+                    source.append("    string field").append(field).append(" = \"\";\n");
+                }
+                source.append("|};\n");
+                for (int level = 1; level <= nestingDepth; level++) {
+                    source.append("\npublic type ").append(getNestedRecordName(type, level)).append(" record {|\n");
+                    source.append("    string id = \"\";\n    string? name = ();\n");
+                    if (level < nestingDepth) {
+                        source.append("    ").append(getNestedRecordName(type, level + 1)).append(" nested = {};\n");
+                    }
+                    source.append("|};\n");
+                }
+                writeSampleData(resourceDirectory.resolve(getRecordName(type) + "_data.json"), moduleName, type);
+            }
+            Files.writeString(moduleDirectory.resolve("types.bal"), source);
+        }
+        return packageDirectory;
+    }
+
+    /**
+     * Returns the record types of a module of the package, as extracted by the compiler plugin.
+     */
+    Map<String, Map<String, String>> getRecordTypes(String moduleName) {
+        Map<String, Map<String, String>> recordTypes = new HashMap<>();
+        for (int type = 0; type < recordTypeCount; type++) {
+            Map<String, String> fieldTypes = new LinkedHashMap<>();
+            if (nestingDepth > 0) {
+                fieldTypes.put("nested", getTypeName(moduleName, getNestedRecordName(type, 1)));
+            }
+            for (int field = 0; field < fieldCount; field++) {
+                fieldTypes.put("field" + field, "string");
+            }
+            recordTypes.put(getTypeName(moduleName, getRecordName(type)), fieldTypes);
+            for (int level = 1; level <= nestingDepth; level++) {
+                Map<String, String> nestedFieldTypes = new LinkedHashMap<>();
+                nestedFieldTypes.put("id", "string");
+                nestedFieldTypes.put("name", "string?");
+                if (level < nestingDepth) {
+                    nestedFieldTypes.put("nested", getTypeName(moduleName, getNestedRecordName(type, level + 1)));
+                }
+                recordTypes.put(getTypeName(moduleName, getNestedRecordName(type, level)), nestedFieldTypes);
+            }
+        }
+        return recordTypes;
+    }
+
+    /**
+     * Writes the sample data file of a record type of a module, with records which match the record type.
+     */
+    void writeSampleData(Path path, String moduleName, int type) throws IOException {
+        String typeName = getTypeName(moduleName, getRecordName(type));
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"" + typeName + "\": [\n");
+            for (int record = 0; record < recordCount; record++) {
+                writer.write("    {");
+                if (nestingDepth > 0) {
+                    writer.write("\"nested\": ");
+                    for (int level = 1; level < nestingDepth; level++) {
+                        writer.write("{\"id\": \"" + record + "\", \"name\": null, \"nested\": ");
+                    }
+                    writer.write("{\"id\": \"" + record + "\", \"name\": null}");
+                    writer.write("}".repeat(nestingDepth - 1));
+                    writer.write(fieldCount > 0 ? ", " : "");
+                }
+                for (int field = 0; field < fieldCount; field++) {
+                    writer.write((field > 0 ? ", " : "") + "\"field" + field + "\": \"value " + record + "\"");
+                }
+                writer.write("}");
+                writer.write(record == recordCount - 1 ? "\n" : ",\n");
+            }
+            writer.write("  ]\n}\n");
+        }
+    }
+
+    /**
+     * Deletes a generated package.
+     */
+    static void delete(Path packageDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(packageDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    static String getModuleName(int module) {
+        return "m" + module;
+    }
+
+    static String getRecordName(int type) {
+        return "Type" + type;
+    }
+
+    /**
+     * Returns the fully qualified name of a record type of a module of the package.
+     */
+    static String getTypeName(String moduleName, String recordName) {
+        return ORG_NAME + "/" + PACKAGE_NAME + "." + moduleName + ":" + VERSION + ":" + recordName;
+    }
+
+    private static String getNestedRecordName(int type, int level) {
+        return "Nested" + type + "_" + level;
+    }
+}
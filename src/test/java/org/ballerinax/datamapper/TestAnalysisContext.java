@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.datamapper;
+
+import io.ballerina.projects.Package;
+import io.ballerina.projects.PackageCompilation;
+import io.ballerina.projects.plugins.CompilationAnalysisContext;
+import io.ballerina.tools.diagnostics.Diagnostic;
+
+/**
+ * Analysis context of a compiled package, which lets the analysis task run outside of a compilation and counts the
+ * diagnostics it reports.
+ */
+class TestAnalysisContext implements CompilationAnalysisContext {
+    private final Package currentPackage;
+    private final PackageCompilation compilation;
+    private int diagnosticCount;
+
+    TestAnalysisContext(Package currentPackage, PackageCompilation compilation) {
+        this.currentPackage = currentPackage;
+        this.compilation = compilation;
+    }
+
+    @Override
+    public Package currentPackage() {
+        return currentPackage;
+    }
+
+    @Override
+    public PackageCompilation compilation() {
+        return compilation;
+    }
+
+    @Override
+    public void reportDiagnostic(Diagnostic diagnostic) {
+        diagnosticCount++;
+    }
+
+    int getDiagnosticCount() {
+        return diagnosticCount;
+    }
+
+    void resetDiagnosticCount() {
+        diagnosticCount = 0;
+    }
+}